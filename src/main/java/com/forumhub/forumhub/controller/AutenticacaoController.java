@@ -1,9 +1,15 @@
 package com.forumhub.forumhub.controller;
 
 import com.forumhub.forumhub.dto.auth.DadosAutenticacao;
+import com.forumhub.forumhub.dto.auth.DadosRefreshToken;
 import com.forumhub.forumhub.dto.auth.DadosTokenJWT;
+import com.forumhub.forumhub.infra.exception.ValidacaoTokenException;
+import com.forumhub.forumhub.infra.security.CachePrincipal;
+import com.forumhub.forumhub.infra.security.RefreshTokenService;
+import com.forumhub.forumhub.infra.security.RevogacaoService;
 import com.forumhub.forumhub.infra.security.TokenService;
 import com.forumhub.forumhub.model.Usuario;
+import com.forumhub.forumhub.repository.UsuarioRepository;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -11,11 +17,10 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
-@RequestMapping("/login")
 public class AutenticacaoController {
 
     @Autowired
@@ -24,14 +29,55 @@ public class AutenticacaoController {
     @Autowired
     private TokenService tokenService;
 
-    @PostMapping
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RevogacaoService revogacaoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CachePrincipal cachePrincipal;
+
+    @PostMapping("/login")
     public ResponseEntity efetuarLogin(@RequestBody @Valid DadosAutenticacao dados) {
         var authenticationToken = new UsernamePasswordAuthenticationToken(dados.login(), dados.senha());
         var authentication = manager.authenticate(authenticationToken);
 
-        var tokenJWT = tokenService.gerarToken((Usuario) authentication.getPrincipal());
+        var usuario = (Usuario) authentication.getPrincipal();
+        var tokenJWT = tokenService.gerarToken(usuario);
+        var refreshToken = refreshTokenService.emitir(usuario);
+
+        return ResponseEntity.ok(new DadosTokenJWT(tokenJWT, refreshToken));
+    }
+
+    // Usuário pelo mesmo cache do SecurityFilter (invalidado quando o usuário muda): na renovação
+    // comum nada vai ao banco na requisição
+    @PostMapping("/login/refresh")
+    public ResponseEntity renovarToken(@RequestBody @Valid DadosRefreshToken dados) {
+        var sessao = refreshTokenService.consumir(dados.refreshToken());
+        var usuario = cachePrincipal.buscar(sessao.login(), usuarioRepository::findByLogin)
+                .filter(u -> u.getId().equals(sessao.usuarioId()) && u.isEnabled() && u.isAccountNonLocked())
+                .orElseThrow(() -> new ValidacaoTokenException("Usuário do refresh token não existe ou está inativo!"));
+
+        var tokenJWT = tokenService.gerarToken(usuario);
+        var refreshToken = refreshTokenService.emitir(usuario);
+
+        return ResponseEntity.ok(new DadosTokenJWT(tokenJWT, refreshToken));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> efetuarLogout(
+            @RequestHeader("Authorization") String authorization,
+            @RequestBody(required = false) DadosRefreshToken dados) {
+        revogacaoService.revogar(tokenService.verificar(authorization.replace("Bearer ", "")));
 
-        return ResponseEntity.ok(new DadosTokenJWT(tokenJWT));
+        if (dados != null && dados.refreshToken() != null) {
+            refreshTokenService.revogar(dados.refreshToken());
+        }
 
+        return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+}
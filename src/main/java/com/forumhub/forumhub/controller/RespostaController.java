@@ -4,7 +4,11 @@ import com.forumhub.forumhub.dto.resposta.DadosAtualizacaoResposta;
 import com.forumhub.forumhub.dto.resposta.DadosCadastroResposta;
 import com.forumhub.forumhub.dto.resposta.DadosDetalhamentoResposta;
 import com.forumhub.forumhub.dto.resposta.DadosListagemResposta;
+import com.forumhub.forumhub.infra.evento.EventoResposta;
+import com.forumhub.forumhub.infra.evento.HubRespostas;
 import com.forumhub.forumhub.infra.exception.ValidacaoException;
+import com.forumhub.forumhub.infra.http.ETags;
+import com.forumhub.forumhub.infra.paginacao.Cursor;
 import com.forumhub.forumhub.model.Resposta;
 import com.forumhub.forumhub.model.Usuario;
 import com.forumhub.forumhub.repository.RespostaRepository;
@@ -13,9 +17,16 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDateTime;
@@ -25,12 +36,20 @@ import java.util.List;
 @RequestMapping("/topicos/{idTopico}/respostas")
 public class RespostaController {
 
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
     @Autowired
     private RespostaRepository respostaRepository;
 
     @Autowired
     private TopicoRepository topicoRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private HubRespostas hubRespostas;
+
     @PostMapping
     @Transactional
     public ResponseEntity<DadosDetalhamentoResposta> criarResposta(
@@ -39,29 +58,72 @@ public class RespostaController {
             @AuthenticationPrincipal Usuario autor,
             UriComponentsBuilder uriBuilder) {
 
-        var topico = topicoRepository.findById(idTopico)
-                .orElseThrow(() -> new EntityNotFoundException("Tópico ID" + idTopico + " não encontrado!"));
+        // O UPDATE limpa o contexto de persistência: o tópico só é referenciado depois dele
+        var dataCriacao = LocalDateTime.now();
+        if (topicoRepository.registrarResposta(idTopico, dataCriacao) == 0) {
+            throw new EntityNotFoundException("Tópico ID" + idTopico + " não encontrado!");
+        }
 
-        var resposta = new Resposta(null, dados.mensagem(), topico, LocalDateTime.now(), autor, false);
+        var resposta = new Resposta(null, dados.mensagem(), topicoRepository.getReferenceById(idTopico), dataCriacao, autor, false);
         respostaRepository.save(resposta);
+        eventPublisher.publishEvent(new EventoResposta(EventoResposta.Tipo.CRIADA, idTopico, new DadosListagemResposta(resposta)));
 
         var uri = uriBuilder.path("/topicos/{idTopico}/respostas/{idResposta}").buildAndExpand(idTopico, resposta.getId()).toUri();
         return ResponseEntity.created(uri).body(new DadosDetalhamentoResposta(resposta));
     }
 
-    @GetMapping
-    public ResponseEntity<List<DadosListagemResposta>> listarRespostas(@PathVariable Long idTopico) {
-        if (!topicoRepository.existsById(idTopico)) {
+    // SSE com as respostas novas do tópico; na reconexão o navegador manda o Last-Event-ID e recebe o que perdeu
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharRespostas(
+            @PathVariable Long idTopico,
+            @RequestHeader(name = "Last-Event-ID", required = false) String ultimoEventoId) {
+
+        if (!topicoRepository.existsByIdAndAtivoTrue(idTopico)) {
             throw new EntityNotFoundException("Tópico ID " + idTopico + " não encontrado!");
         }
+        return hubRespostas.assinar(idTopico, ultimoEventoId);
+    }
+
+    // Keyset por (data_criacao, id): respostas e autores numa consulta só, mais a de versão/existência.
+    // O corpo continua sendo a lista; a próxima página vem no header Link (rel="next").
+    @GetMapping
+    public ResponseEntity<List<DadosListagemResposta>> listarRespostas(
+            @PathVariable Long idTopico,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size,
+            WebRequest request) {
+
+        // Calculado antes da listagem: se algo mudar no meio, o ETag fica "velho" e o próximo GET só recebe 200 de novo
+        var versao = respostaRepository.findVersaoByTopicoId(idTopico)
+                .orElseThrow(() -> new EntityNotFoundException("Tópico ID " + idTopico + " não encontrado!"));
+        var etag = ETags.deRespostas(versao);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
 
-        var respostas = respostaRepository.findByTopicoId(idTopico);
+        var tamanho = Math.min(Math.max(size, 1), TAMANHO_MAXIMO_PAGINA);
+        var limite = Limit.of(tamanho + 1);
+        var respostas = after == null || after.isBlank()
+                ? respostaRepository.findPrimeiraPagina(idTopico, limite)
+                : paginaApos(idTopico, after, limite);
+
+        var resposta = ResponseEntity.ok().eTag(etag);
+        if (respostas.size() > tamanho) {
+            respostas = respostas.subList(0, tamanho);
+            var ultima = respostas.get(tamanho - 1);
+            var proximaPagina = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", new Cursor(ultima.dataCriacao(), ultima.id()).codificar())
+                    .replaceQueryParam("size", tamanho)
+                    .toUriString();
+            resposta.header(HttpHeaders.LINK, "<" + proximaPagina + ">; rel=\"next\"");
+        }
 
-        var listaDto = respostas.stream()
-                .map(DadosListagemResposta::new)
-                .toList();
+        return resposta.body(respostas);
+    }
 
-        return ResponseEntity.ok(listaDto);
+    private List<DadosListagemResposta> paginaApos(Long idTopico, String after, Limit limite) {
+        var cursor = Cursor.decodificar(after);
+        return respostaRepository.findPaginaApos(idTopico, cursor.dataCriacao(), cursor.id(), limite);
     }
 
     @PutMapping("/{idResposta}")
@@ -72,6 +134,8 @@ public class RespostaController {
             @RequestBody @Valid DadosAtualizacaoResposta dados,
             @AuthenticationPrincipal Usuario usuarioLogado) {
 
+        // Primeiro o tópico, como nas outras escritas de resposta; uma exceção abaixo desfaz o UPDATE
+        topicoRepository.registrarEdicaoResposta(idTopico);
         var resposta = respostaRepository.findById(idResposta)
                 .orElseThrow(() -> new EntityNotFoundException("Resposta ID " + idResposta + " não encontrada!"));
 
@@ -79,15 +143,47 @@ public class RespostaController {
             throw new ValidacaoException("Esta resposta não pertence ao tópico informado!");
         }
 
-        if (!resposta.getAutor().equals(usuarioLogado)) {
+        if (!resposta.getAutor().getId().equals(usuarioLogado.getId())) {
             throw new ValidacaoException("Apenas o Autor pode editar esta resposta.");
         }
 
         resposta.atualizarInformacoes(dados.mensagem());
+        eventPublisher.publishEvent(new EventoResposta(EventoResposta.Tipo.ATUALIZADA, idTopico, new DadosListagemResposta(resposta)));
 
         return ResponseEntity.ok(new DadosDetalhamentoResposta(resposta));
     }
 
+    // Só UPDATEs condicionais. O do tópico vem primeiro e trava a linha, serializando aceites concorrentes
+    // no mesmo tópico; depois a nova solução é marcada e as anteriores desmarcadas.
+    @PostMapping("/{idResposta}/solucao")
+    @Transactional
+    public ResponseEntity<Void> aceitarSolucao(
+            @PathVariable Long idTopico,
+            @PathVariable Long idResposta,
+            @AuthenticationPrincipal Usuario usuarioLogado) {
+
+        var topico = topicoRepository.findAtivoById(idTopico)
+                .orElseThrow(() -> new EntityNotFoundException("Tópico ID " + idTopico + " não encontrado!"));
+
+        if (!topico.getAutor().equals(usuarioLogado.getUsername())) {
+            throw new ValidacaoException("Apenas o Autor do tópico pode aceitar uma solução.");
+        }
+
+        if (topicoRepository.aceitarSolucao(idTopico, idResposta) == 0) {
+            throw new ValidacaoException("Não é possível aceitar uma solução em um tópico fechado.");
+        }
+        // Exceção desfaz o UPDATE do tópico junto
+        if (respostaRepository.marcarSolucao(idTopico, idResposta) == 0) {
+            throw new ValidacaoException("Esta resposta não pertence ao tópico informado.");
+        }
+        respostaRepository.desmarcarOutrasSolucoes(idTopico, idResposta);
+
+        respostaRepository.findSolucoes(idTopico, Limit.of(1)).forEach(solucao ->
+                eventPublisher.publishEvent(new EventoResposta(EventoResposta.Tipo.SOLUCAO_ACEITA, idTopico, solucao)));
+
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{idResposta}")
     @Transactional
     public ResponseEntity<Void> deletarResposta(
@@ -103,11 +199,15 @@ public class RespostaController {
         }
 
         var autorDoTopico = resposta.getTopico().getAutor();
-        if (!resposta.getAutor().equals(usuarioLogado) && !autorDoTopico.equals(usuarioLogado.getUsername())) {
+        if (!resposta.getAutor().getId().equals(usuarioLogado.getId()) && !autorDoTopico.equals(usuarioLogado.getUsername())) {
             throw new ValidacaoException("Apenas o Autor da resposta/tópico pode excluir.");
         }
 
-        respostaRepository.delete(resposta);
+        var dadosResposta = new DadosListagemResposta(resposta);
+        // O UPDATE limpa o contexto de persistência e a resposta carregada acima fica destacada
+        topicoRepository.removerResposta(idTopico, idResposta);
+        respostaRepository.deleteById(idResposta);
+        eventPublisher.publishEvent(new EventoResposta(EventoResposta.Tipo.EXCLUIDA, idTopico, dadosResposta));
 
         return ResponseEntity.noContent().build();
     }
@@ -2,47 +2,116 @@ package com.forumhub.forumhub.controller;
 
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import com.forumhub.forumhub.dto.importacao.DadosResultadoImportacao;
+import com.forumhub.forumhub.dto.paginacao.DadosPaginaCursor;
+import com.forumhub.forumhub.dto.resposta.DadosListagemResposta;
 import com.forumhub.forumhub.dto.topico.*;
+import com.forumhub.forumhub.infra.busca.IndiceSimilaridade;
+import com.forumhub.forumhub.infra.cache.CacheDetalhamentoTopico;
+import com.forumhub.forumhub.infra.busca.IndiceSugestoes;
+import com.forumhub.forumhub.infra.busca.IndiceTextual;
+import com.forumhub.forumhub.infra.exception.ValidacaoException;
+import com.forumhub.forumhub.infra.exportacao.ExportadorTopicos;
+import com.forumhub.forumhub.infra.exportacao.FormatoExportacao;
+import com.forumhub.forumhub.infra.http.ETags;
+import com.forumhub.forumhub.infra.importacao.ImportadorTopicos;
+import com.forumhub.forumhub.infra.paginacao.Cursor;
+import com.forumhub.forumhub.infra.topico.ContadorVisualizacoes;
+import com.forumhub.forumhub.infra.topico.FiltroDuplicidadeTopico;
+import com.forumhub.forumhub.infra.topico.TendenciasTopicos;
 import com.forumhub.forumhub.model.Topico;
 import com.forumhub.forumhub.model.Usuario;
+import com.forumhub.forumhub.repository.RespostaRepository;
 import com.forumhub.forumhub.repository.TopicoRepository;
+import com.forumhub.forumhub.repository.TopicoSpecifications;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.persistence.criteria.Predicate;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/topicos")
 public class TopicoController {
 
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
     @Autowired
     private TopicoRepository repository;
 
+    @Autowired
+    private RespostaRepository respostaRepository;
+
+    @Autowired
+    private FiltroDuplicidadeTopico filtroDuplicidade;
+
+    @Autowired
+    private IndiceSimilaridade indiceSimilaridade;
+
+    @Autowired
+    private IndiceTextual indiceTextual;
+
+    @Autowired
+    private IndiceSugestoes indiceSugestoes;
+
+    @Autowired
+    private CacheDetalhamentoTopico cacheDetalhamento;
+
+    @Autowired
+    private ImportadorTopicos importadorTopicos;
+
+    @Autowired
+    private ExportadorTopicos exportadorTopicos;
+
+    @Autowired
+    private ContadorVisualizacoes contadorVisualizacoes;
+
+    @Autowired
+    private TendenciasTopicos tendenciasTopicos;
+
     @PostMapping
     @Transactional
     public ResponseEntity cadastrar(@RequestBody @Valid DadosCadastroTopico dados, UriComponentsBuilder uriBuilder) {
-        if (repository.existsByTituloAndMensagem(dados.titulo(), dados.mensagem())) {
+        var hashConteudo = Topico.gerarHashConteudo(dados.titulo(), dados.mensagem());
+        if (filtroDuplicidade.talvezExista(hashConteudo) && repository.existsByHashConteudo(hashConteudo)) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body("Tópico duplicado! Tente criar um tópico com título e mensagem diferentes!");
         }
 
+        var similares = indiceSimilaridade.buscarSimilares(dados.titulo(), dados.mensagem());
         var topico = new Topico(dados);
-        repository.save(topico);
+        // flush aqui: se outra requisição gravou o mesmo conteúdo, o índice único responde com 409
+        repository.saveAndFlush(topico);
 
         var uri = uriBuilder.path("/topicos/{id}").buildAndExpand(topico.getId()).toUri();
-        return ResponseEntity.created(uri).body(topico);
+        return ResponseEntity.created(uri).body(new DadosTopicoCadastrado(topico, similares));
+    }
+
+    // NDJSON (um tópico por linha), gravado em lotes com transação própria; sem @Transactional aqui
+    @PostMapping(path = "/importacao", consumes = "application/x-ndjson")
+    public ResponseEntity<DadosResultadoImportacao> importar(InputStream corpo) throws IOException {
+        return ResponseEntity.ok(importadorTopicos.importar(corpo));
     }
 
     @GetMapping
@@ -51,33 +120,156 @@ public class TopicoController {
             @RequestParam(required = false) String curso,
             @RequestParam(required = false) Integer ano) {
 
-        Specification<Topico> spec = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
+        var spec = TopicoSpecifications.ativosFiltrados(curso, ano);
 
-            predicates.add(criteriaBuilder.isTrue(root.get("ativo")));
+        var page = repository.listarResumos(spec, paginacao);
+        return ResponseEntity.ok(page);
+    }
 
-            if (curso != null && !curso.isEmpty()) {
-                predicates.add(criteriaBuilder.equal(root.get("curso"), curso));
-            }
+    // Paginação por keyset: sem COUNT e com custo constante em qualquer profundidade
+    @GetMapping(params = "after")
+    public ResponseEntity<DadosPaginaCursor<DadosListagemTopico>> listarPorCursor(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String curso,
+            @RequestParam(required = false) Integer ano) {
 
-            if (ano != null) {
-                predicates.add(criteriaBuilder.equal(
-                        criteriaBuilder.function("YEAR", Integer.class, root.get("dataCriacao")), ano
-                ));
-            }
+        var tamanho = Math.min(Math.max(size, 1), TAMANHO_MAXIMO_PAGINA);
+        var spec = TopicoSpecifications.ativosFiltrados(curso, ano);
+        if (!after.isBlank()) {
+            spec = spec.and(TopicoSpecifications.aposCursor(Cursor.decodificar(after)));
+        }
 
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
+        var topicos = repository.listarResumosPorCursor(spec, tamanho + 1);
 
-        var page = repository.findAll(spec, paginacao).map(DadosListagemTopico::new);
-        return ResponseEntity.ok(page);
+        String proximoCursor = null;
+        if (topicos.size() > tamanho) {
+            topicos = topicos.subList(0, tamanho);
+            var ultimo = topicos.get(tamanho - 1);
+            proximoCursor = new Cursor(ultimo.dataCriacao(), ultimo.id()).codificar();
+        }
+
+        return ResponseEntity.ok(new DadosPaginaCursor<>(topicos, proximoCursor));
+    }
+
+    // Exportação completa em streaming: as linhas vão para a resposta conforme saem do cursor,
+    // sem paginação nem COUNT. Escreve direto na resposta para não depender do timeout de requisições assíncronas.
+    @GetMapping("/exportacao")
+    public void exportar(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @RequestParam(required = false) String curso,
+            @RequestParam(required = false) Integer ano,
+            @RequestParam(defaultValue = "false") boolean respostas,
+            HttpServletResponse response) throws IOException {
+
+        var formatoExportacao = FormatoExportacao.de(formato);
+        response.setContentType(formatoExportacao.tipoConteudo());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("topicos." + formatoExportacao.extensao())
+                .build()
+                .toString());
+
+        exportadorTopicos.exportar(formatoExportacao, TopicoSpecifications.ativosFiltrados(curso, ano), respostas,
+                response.getOutputStream());
+    }
+
+    // Tópicos em alta nas últimas horas, no geral ou de um curso; lido do ranking em memória
+    @GetMapping("/tendencias")
+    public ResponseEntity<List<DadosTendenciaTopico>> tendencias(
+            @RequestParam(required = false) String curso,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(tendenciasTopicos.buscar(curso, limite));
+    }
+
+    // Busca textual no índice em memória; o banco só carrega os tópicos da página
+    @GetMapping("/busca")
+    public ResponseEntity<Page<DadosListagemTopico>> buscar(
+            @RequestParam String q,
+            @PageableDefault(size = 10) Pageable paginacao) {
+
+        if (q.isBlank()) {
+            throw new ValidacaoException("Informe o termo da busca!");
+        }
+
+        var pagina = PageRequest.of(paginacao.getPageNumber(), Math.min(paginacao.getPageSize(), TAMANHO_MAXIMO_PAGINA));
+        var ids = indiceTextual.buscar(q, pagina);
+
+        var topicos = repository.findAllById(ids.getContent()).stream()
+                .filter(Topico::isAtivo)
+                .collect(Collectors.toMap(Topico::getId, Function.identity()));
+        var conteudo = ids.stream()
+                .map(topicos::get)
+                .filter(Objects::nonNull)
+                .map(DadosListagemTopico::new)
+                .toList();
+
+        return ResponseEntity.ok(new PageImpl<>(conteudo, pagina, ids.getTotalElements()));
+    }
+
+    // Autocomplete de títulos, respondido só pela árvore de prefixos em memória
+    @GetMapping("/sugestoes")
+    public ResponseEntity<List<DadosSugestaoTitulo>> sugerir(
+            @RequestParam String prefixo,
+            @RequestParam(defaultValue = "5") int limite) {
+
+        var sugestoes = indiceSugestoes.sugerir(prefixo, Math.max(limite, 1)).stream()
+                .map(DadosSugestaoTitulo::new)
+                .toList();
+        return ResponseEntity.ok(sugestoes);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<DadosDetalhamentoTopico> detalhar(@PathVariable Long id) {
-        var topico = repository.findAtivoById(id)
+    public ResponseEntity<DadosDetalhamentoTopico> detalhar(@PathVariable Long id, WebRequest request) {
+        var topico = cacheDetalhamento.buscar(id)
+                .orElseThrow(EntityNotFoundException::new);
+
+        var etag = ETags.deVersao(topico.versao());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        // Só conta quando o corpo é servido: revalidações com 304 não são novas visualizações
+        contadorVisualizacoes.registrar(id);
+        return ResponseEntity.ok().eTag(etag).body(topico.dados());
+    }
+
+    // Tópico + primeira página de respostas + solução numa ida só. Com o tópico em cache são no máximo
+    // três consultas (versão/total, página, solução) e só uma quando a resposta é 304.
+    @GetMapping(value = "/{id}", params = "include=respostas")
+    public ResponseEntity<DadosTopicoComRespostas> detalharComRespostas(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+
+        var topico = cacheDetalhamento.buscar(id)
+                .orElseThrow(EntityNotFoundException::new);
+        var versaoRespostas = respostaRepository.findVersaoByTopicoId(id)
                 .orElseThrow(EntityNotFoundException::new);
-        return ResponseEntity.ok(new DadosDetalhamentoTopico(topico));
+
+        var etag = ETags.deTopicoComRespostas(topico.versao(), versaoRespostas);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        contadorVisualizacoes.registrar(id);
+
+        var tamanho = Math.min(Math.max(size, 1), TAMANHO_MAXIMO_PAGINA);
+        var respostas = respostaRepository.findPrimeiraPagina(id, Limit.of(tamanho + 1));
+        String proximoCursor = null;
+        if (respostas.size() > tamanho) {
+            respostas = respostas.subList(0, tamanho);
+            var ultima = respostas.get(tamanho - 1);
+            proximoCursor = new Cursor(ultima.dataCriacao(), ultima.id()).codificar();
+        }
+
+        var solucao = respostas.stream()
+                .filter(resposta -> Boolean.TRUE.equals(resposta.solucao()))
+                .findFirst()
+                .or(() -> respostaRepository.findSolucoes(id, Limit.of(1)).stream().findFirst())
+                .orElse(null);
+
+        var corpo = new DadosTopicoComRespostas(topico.dados(), versaoRespostas.quantidade(), solucao,
+                new DadosPaginaCursor<>(respostas, proximoCursor));
+        return ResponseEntity.ok().eTag(etag).body(corpo);
     }
 
     @PutMapping("/{id}")
@@ -85,6 +277,7 @@ public class TopicoController {
     public ResponseEntity<DadosDetalhamentoTopico> atualizar(
             @PathVariable Long id,
             @RequestBody @Valid DadosAtualizacaoTopico dados,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal Usuario usuarioLogado) {
 
         var topico = repository.findAtivoById(id)
@@ -94,15 +287,22 @@ public class TopicoController {
             throw new AccessDeniedException("Acesso negado. Apenas o autor deste tópico pode acessá-lo.");
         }
 
-        repository.findByTituloAndMensagem(dados.titulo(), dados.mensagem())
-                .ifPresent(t -> {
-                    if (!t.getId().equals(id)) {
-                        throw new ValidationException("Tópico duplicado! Já existe um tópico com este título e mensagem!");
-                    }
-                });
+        if (ifMatch != null && !ETags.atende(ifMatch, ETags.deVersao(topico.getVersao()))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        var hashConteudo = Topico.gerarHashConteudo(
+                dados.titulo() != null ? dados.titulo() : topico.getTitulo(),
+                dados.mensagem() != null ? dados.mensagem() : topico.getMensagem());
+        if (filtroDuplicidade.talvezExista(hashConteudo) && repository.existsByHashConteudoAndIdNot(hashConteudo, id)) {
+            throw new ValidationException("Tópico duplicado! Já existe um tópico com este título e mensagem!");
+        }
         topico.atualizarInformacoes(dados);
 
-        return ResponseEntity.ok(new DadosDetalhamentoTopico(topico));
+        // flush para o UPDATE ... WHERE versao = ? rodar agora e devolver o ETag já com a nova versão
+        repository.flush();
+
+        return ResponseEntity.ok().eTag(ETags.deVersao(topico.getVersao())).body(new DadosDetalhamentoTopico(topico));
     }
 
     @DeleteMapping("/{id}")
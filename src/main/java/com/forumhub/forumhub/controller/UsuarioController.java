@@ -10,7 +10,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -26,8 +26,11 @@ public class UsuarioController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // A transação envolve só a gravação: a espera pelo pool de hash não deve segurar uma conexão do banco
     @PostMapping
-    @Transactional
     public ResponseEntity<?> cadastrar(@RequestBody @Valid DadosCadastroUsuario dados,
                                        UriComponentsBuilder uriBuilder) {
         if (repository.findByLogin(dados.login()).isPresent()) {
@@ -35,11 +38,13 @@ public class UsuarioController {
             return ResponseEntity.badRequest().body(erro);
         }
 
+        var senha = passwordEncoder.encode(dados.senha());
+
         Usuario usuario = new Usuario();
         usuario.setLogin(dados.login());
-        usuario.setSenha(passwordEncoder.encode(dados.senha()));
+        usuario.setSenha(senha);
 
-        repository.save(usuario);
+        transactionTemplate.executeWithoutResult(status -> repository.save(usuario));
 
         var uri = uriBuilder.path("/usuarios/{id}").buildAndExpand(usuario.getId()).toUri();
         return ResponseEntity.created(uri).body(new DadosDetalhamentoUsuario(usuario));
@@ -0,0 +1,6 @@
+package com.forumhub.forumhub.dto.auth;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record DadosRefreshToken(@NotBlank String refreshToken) {
+}
@@ -1,4 +1,4 @@
 package com.forumhub.forumhub.dto.auth;
 
-public record DadosTokenJWT(String token) {
+public record DadosTokenJWT(String token, String refreshToken) {
 }
@@ -0,0 +1,31 @@
+package com.forumhub.forumhub.dto.exportacao;
+
+import com.forumhub.forumhub.model.StatusTopico;
+
+import java.time.LocalDateTime;
+
+// Uma linha do cursor de exportação: o tópico e, quando pedidas, uma das suas respostas
+// (campos da resposta nulos para tópicos sem respostas)
+public record DadosLinhaExportacao(
+        Long id,
+        String titulo,
+        String mensagem,
+        LocalDateTime dataCriacao,
+        StatusTopico status,
+        String autor,
+        String curso,
+        Integer totalRespostas,
+        LocalDateTime dataUltimaAtividade,
+        Long idResposta,
+        String mensagemResposta,
+        LocalDateTime dataCriacaoResposta,
+        String autorResposta,
+        Boolean solucao
+) {
+
+    public DadosLinhaExportacao(Long id, String titulo, String mensagem, LocalDateTime dataCriacao, StatusTopico status,
+                                String autor, String curso, Integer totalRespostas, LocalDateTime dataUltimaAtividade) {
+        this(id, titulo, mensagem, dataCriacao, status, autor, curso, totalRespostas, dataUltimaAtividade,
+                null, null, null, null, null);
+    }
+}
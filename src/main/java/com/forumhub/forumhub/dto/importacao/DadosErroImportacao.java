@@ -0,0 +1,4 @@
+package com.forumhub.forumhub.dto.importacao;
+
+public record DadosErroImportacao(long linha, String erro) {
+}
@@ -0,0 +1,16 @@
+package com.forumhub.forumhub.dto.importacao;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+public record DadosImportacaoResposta(
+        @NotBlank @Size(max = 255)
+        String mensagem,
+        @NotBlank
+        String autor,
+        LocalDateTime dataCriacao,
+        Boolean solucao
+) {
+}
@@ -0,0 +1,22 @@
+package com.forumhub.forumhub.dto.importacao;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record DadosImportacaoTopico(
+        @NotBlank @Size(max = 100)
+        String titulo,
+        @NotBlank @Size(max = 255)
+        String mensagem,
+        @NotBlank @Size(max = 100)
+        String autor,
+        @NotBlank @Size(max = 100)
+        String curso,
+        LocalDateTime dataCriacao,
+        List<@Valid DadosImportacaoResposta> respostas
+) {
+}
@@ -0,0 +1,13 @@
+package com.forumhub.forumhub.dto.importacao;
+
+import java.util.List;
+
+public record DadosResultadoImportacao(
+        long linhasLidas,
+        long topicosImportados,
+        long respostasImportadas,
+        long duplicados,
+        long totalErros,
+        List<DadosErroImportacao> erros
+) {
+}
@@ -0,0 +1,6 @@
+package com.forumhub.forumhub.dto.paginacao;
+
+import java.util.List;
+
+public record DadosPaginaCursor<T>(List<T> content, String proximoCursor) {
+}
@@ -0,0 +1,4 @@
+package com.forumhub.forumhub.dto.resposta;
+
+public record DadosVersaoRespostas(Long versaoTopico, Long quantidade) {
+}
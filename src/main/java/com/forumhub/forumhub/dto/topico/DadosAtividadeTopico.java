@@ -0,0 +1,6 @@
+package com.forumhub.forumhub.dto.topico;
+
+import java.time.LocalDateTime;
+
+public record DadosAtividadeTopico(Long idTopico, String curso, LocalDateTime data) {
+}
@@ -0,0 +1,10 @@
+package com.forumhub.forumhub.dto.topico;
+
+import com.forumhub.forumhub.model.Topico;
+
+public record DadosConteudoTopico(Long id, String titulo, String mensagem, String curso) {
+
+    public DadosConteudoTopico(Topico topico) {
+        this(topico.getId(), topico.getTitulo(), topico.getMensagem(), topico.getCurso());
+    }
+}
@@ -12,11 +12,15 @@ public record DadosListagemTopico(
         LocalDateTime dataCriacao,
         StatusTopico status,
         String autor,
-        String curso)
+        String curso,
+        Integer totalRespostas,
+        LocalDateTime dataUltimaAtividade,
+        Long visualizacoes)
 {
 
     public DadosListagemTopico(Topico topico) {
         this(topico.getId(), topico.getTitulo(), topico.getMensagem(), topico.getDataCriacao(),
-                topico.getStatus(), topico.getAutor(), topico.getCurso());
+                topico.getStatus(), topico.getAutor(), topico.getCurso(), topico.getTotalRespostas(),
+                topico.getDataUltimaAtividade(), topico.getVisualizacoes());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+package com.forumhub.forumhub.dto.topico;
+
+import com.forumhub.forumhub.infra.util.ArvorePrefixos;
+
+public record DadosSugestaoTitulo(String titulo, int topicos) {
+
+    public DadosSugestaoTitulo(ArvorePrefixos.Sugestao sugestao) {
+        this(sugestao.texto(), sugestao.contagem());
+    }
+}
@@ -0,0 +1,4 @@
+package com.forumhub.forumhub.dto.topico;
+
+public record DadosTendenciaTopico(Long id, String titulo, String curso, double pontuacao) {
+}
@@ -0,0 +1,23 @@
+package com.forumhub.forumhub.dto.topico;
+
+import com.forumhub.forumhub.model.StatusTopico;
+import com.forumhub.forumhub.model.Topico;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record DadosTopicoCadastrado(
+        Long id,
+        String titulo,
+        String mensagem,
+        LocalDateTime dataCriacao,
+        StatusTopico status,
+        String autor,
+        String curso,
+        List<DadosTopicoSimilar> similares)
+{
+    public DadosTopicoCadastrado(Topico topico, List<DadosTopicoSimilar> similares) {
+        this(topico.getId(), topico.getTitulo(), topico.getMensagem(), topico.getDataCriacao(),
+                topico.getStatus(), topico.getAutor(), topico.getCurso(), similares);
+    }
+}
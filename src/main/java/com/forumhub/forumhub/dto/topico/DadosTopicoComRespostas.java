@@ -0,0 +1,26 @@
+package com.forumhub.forumhub.dto.topico;
+
+import com.forumhub.forumhub.dto.paginacao.DadosPaginaCursor;
+import com.forumhub.forumhub.dto.resposta.DadosListagemResposta;
+import com.forumhub.forumhub.model.StatusTopico;
+
+import java.time.LocalDateTime;
+
+public record DadosTopicoComRespostas(
+        Long id,
+        String titulo,
+        String mensagem,
+        LocalDateTime dataCriacao,
+        StatusTopico status,
+        String autor,
+        String curso,
+        Long totalRespostas,
+        DadosListagemResposta solucao,
+        DadosPaginaCursor<DadosListagemResposta> respostas)
+{
+    public DadosTopicoComRespostas(DadosDetalhamentoTopico topico, Long totalRespostas,
+                                   DadosListagemResposta solucao, DadosPaginaCursor<DadosListagemResposta> respostas) {
+        this(topico.id(), topico.titulo(), topico.mensagem(), topico.dataCriacao(), topico.status(),
+                topico.autor(), topico.curso(), totalRespostas, solucao, respostas);
+    }
+}
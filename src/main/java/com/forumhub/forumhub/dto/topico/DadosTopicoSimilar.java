@@ -0,0 +1,4 @@
+package com.forumhub.forumhub.dto.topico;
+
+public record DadosTopicoSimilar(Long id, String titulo, double similaridade) {
+}
@@ -0,0 +1,258 @@
+package com.forumhub.forumhub.infra.busca;
+
+import com.forumhub.forumhub.dto.topico.DadosConteudoTopico;
+import com.forumhub.forumhub.dto.topico.DadosTopicoSimilar;
+import com.forumhub.forumhub.infra.evento.EventoTopico;
+import com.forumhub.forumhub.infra.util.MultimapaIds;
+import com.forumhub.forumhub.infra.util.TabelaAssinaturas;
+import com.forumhub.forumhub.repository.TopicoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice MinHash + LSH para achar tópicos quase iguais (mesma pergunta com pequenas edições).
+// Cada tópico vira um conjunto de bigramas de palavras; a assinatura MinHash é dividida em bandas
+// e tópicos que colidem em alguma banda viram candidatos, confirmados pela similaridade estimada.
+// Para caber milhões de tópicos, cada valor da assinatura guarda só os 8 bits baixos (b-bit MinHash)
+// e tudo fica em arrays primitivos: por tópico, "hashes" bytes e o título mais 12 bytes por banda.
+// A busca roda toda em memória, sem consultar o banco no cadastro do tópico.
+// Baldes ficam limitados a "max-por-balde" ids e a busca a "max-candidatos" candidatos, para que
+// muitos tópicos curtos quase iguais não deixem cada consulta linear.
+@Component
+public class IndiceSimilaridade {
+
+    @Value("${app.busca.similaridade.hashes}")
+    private int quantidadeHashes;
+
+    @Value("${app.busca.similaridade.bandas}")
+    private int quantidadeBandas;
+
+    @Value("${app.busca.similaridade.limiar}")
+    private double limiar;
+
+    @Value("${app.busca.similaridade.max-resultados}")
+    private int maxResultados;
+
+    @Value("${app.busca.similaridade.max-por-balde}")
+    private int maxPorBalde;
+
+    @Value("${app.busca.similaridade.max-candidatos}")
+    private int maxCandidatos;
+
+    @Autowired
+    private TopicoRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long[] multiplicadores;
+    private long[] deslocamentos;
+    private int linhasPorBanda;
+
+    // Chance de dois valores de 8 bits coincidirem por acaso, descontada na similaridade estimada
+    private static final double COINCIDENCIA_AO_ACASO = 1.0 / 256;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private TabelaAssinaturas assinaturas;
+    private MultimapaIds baldes;
+
+    // Eventos que chegam enquanto a carga inicial lê o banco; aplicados depois dela, senão uma linha
+    // lida antes da alteração sobrescreveria o que o evento indexou. Null depois da carga.
+    private List<EventoTopico> eventosDuranteCarga = new ArrayList<>();
+
+    @PostConstruct
+    void inicializar() {
+        linhasPorBanda = quantidadeHashes / quantidadeBandas;
+        assinaturas = new TabelaAssinaturas(quantidadeHashes);
+        baldes = new MultimapaIds(maxPorBalde);
+        multiplicadores = new long[quantidadeHashes];
+        deslocamentos = new long[quantidadeHashes];
+        var random = new SplittableRandom(0x5EEDL);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            multiplicadores[i] = random.nextLong() | 1L;
+            deslocamentos[i] = random.nextLong();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var topicos = repository.streamConteudoAtivos()) {
+                topicos.forEach(this::indexar);
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            eventosDuranteCarga.forEach(this::aplicar);
+            eventosDuranteCarga = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarTopico(EventoTopico evento) {
+        lock.writeLock().lock();
+        try {
+            if (eventosDuranteCarga != null) {
+                eventosDuranteCarga.add(evento);
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        aplicar(evento);
+    }
+
+    private void aplicar(EventoTopico evento) {
+        if (evento.tipo() == EventoTopico.Tipo.EXCLUIDO) {
+            remover(evento.topico().id());
+        } else {
+            indexar(evento.topico());
+        }
+    }
+
+    public List<DadosTopicoSimilar> buscarSimilares(String titulo, String mensagem) {
+        var assinatura = assinatura(titulo, mensagem);
+        if (assinatura == null) {
+            return List.of();
+        }
+
+        var similares = new ArrayList<DadosTopicoSimilar>();
+        lock.readLock().lock();
+        try {
+            var candidatos = new HashSet<Long>();
+            for (int banda = 0; banda < quantidadeBandas && candidatos.size() < maxCandidatos; banda++) {
+                baldes.paraCada(chaveDaBanda(assinatura, banda), id -> {
+                    if (candidatos.size() < maxCandidatos) {
+                        candidatos.add(id);
+                    }
+                });
+            }
+
+            var outra = new byte[quantidadeHashes];
+            for (var id : candidatos) {
+                if (assinaturas.copiar(id, outra)) {
+                    var similaridade = similaridadeEstimada(assinatura, outra);
+                    if (similaridade >= limiar) {
+                        similares.add(new DadosTopicoSimilar(id, assinaturas.titulo(id), similaridade));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return similares.stream()
+                .sorted(Comparator.comparingDouble(DadosTopicoSimilar::similaridade).reversed())
+                .limit(maxResultados)
+                .toList();
+    }
+
+    void indexar(DadosConteudoTopico topico) {
+        var assinatura = assinatura(topico.titulo(), topico.mensagem());
+        if (assinatura == null) {
+            remover(topico.id());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removerComLock(topico.id());
+            assinaturas.colocar(topico.id(), assinatura, topico.titulo());
+            for (int banda = 0; banda < quantidadeBandas; banda++) {
+                baldes.adicionar(chaveDaBanda(assinatura, banda), topico.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remover(Long id) {
+        lock.writeLock().lock();
+        try {
+            removerComLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // As chaves das bandas saem da assinatura guardada, então não é preciso guardá-las à parte
+    private void removerComLock(long id) {
+        var anterior = new byte[quantidadeHashes];
+        if (assinaturas.copiar(id, anterior)) {
+            for (int banda = 0; banda < quantidadeBandas; banda++) {
+                baldes.remover(chaveDaBanda(anterior, banda), id);
+            }
+            assinaturas.remover(id);
+        }
+    }
+
+    private byte[] assinatura(String titulo, String mensagem) {
+        var palavras = new ArrayList<String>(Tokenizador.tokens(titulo));
+        palavras.addAll(Tokenizador.tokens(mensagem));
+
+        if (palavras.isEmpty()) {
+            return null;
+        }
+
+        var minimos = new int[quantidadeHashes];
+        Arrays.fill(minimos, Integer.MAX_VALUE);
+
+        var quantidadeShingles = Math.max(1, palavras.size() - 1);
+        for (int i = 0; i < quantidadeShingles; i++) {
+            var shingle = palavras.size() == 1 ? palavras.get(0) : palavras.get(i) + ' ' + palavras.get(i + 1);
+            var base = misturar(shingle.hashCode());
+            for (int h = 0; h < quantidadeHashes; h++) {
+                var valor = (int) ((multiplicadores[h] * base + deslocamentos[h]) >>> 33);
+                if (valor < minimos[h]) {
+                    minimos[h] = valor;
+                }
+            }
+        }
+
+        var assinatura = new byte[quantidadeHashes];
+        for (int h = 0; h < quantidadeHashes; h++) {
+            assinatura[h] = (byte) minimos[h];
+        }
+        return assinatura;
+    }
+
+    // Fração de posições iguais, corrigida pelas coincidências de 8 bits ao acaso
+    private double similaridadeEstimada(byte[] a, byte[] b) {
+        var iguais = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                iguais++;
+            }
+        }
+        var fracao = (double) iguais / a.length;
+        return Math.max(0, (fracao - COINCIDENCIA_AO_ACASO) / (1 - COINCIDENCIA_AO_ACASO));
+    }
+
+    private int chaveDaBanda(byte[] assinatura, int banda) {
+        long hash = banda;
+        var inicio = banda * linhasPorBanda;
+        for (int i = inicio; i < inicio + linhasPorBanda; i++) {
+            hash = hash * 31 + assinatura[i];
+        }
+        return (int) misturar(hash);
+    }
+
+    private static long misturar(long valor) {
+        valor ^= valor >>> 33;
+        valor *= 0xFF51AFD7ED558CCDL;
+        valor ^= valor >>> 33;
+        valor *= 0xC4CEB9FE1A85EC53L;
+        valor ^= valor >>> 33;
+        return valor;
+    }
+}
@@ -0,0 +1,131 @@
+package com.forumhub.forumhub.infra.busca;
+
+import com.forumhub.forumhub.infra.evento.EventoTopico;
+import com.forumhub.forumhub.infra.util.ArvorePrefixos;
+import com.forumhub.forumhub.repository.TopicoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Autocomplete de títulos: a chave é o título normalizado e a contagem é quantos tópicos ativos
+// usam aquele título. Leituras concorrentes; alterações vêm dos eventos de tópico.
+@Component
+public class IndiceSugestoes {
+
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    @Value("${app.busca.sugestoes.top-k}")
+    private int topK;
+
+    @Autowired
+    private TopicoRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private ArvorePrefixos arvore;
+    private Map<Long, String> chaves = new HashMap<>();
+    // Retrato atualizado a cada escrita: a coleta de métricas não disputa o lock
+    private volatile ArvorePrefixos.Estatisticas estatisticas;
+
+    @PostConstruct
+    void inicializar() {
+        arvore = new ArvorePrefixos(topK);
+        estatisticas = arvore.estatisticas();
+        Gauge.builder("forumhub.busca.sugestoes.nos", this, indice -> indice.estatisticas().nos())
+                .register(meterRegistry);
+        Gauge.builder("forumhub.busca.sugestoes.memoria", this, indice -> indice.estatisticas().bytesEstimados())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        var novaArvore = new ArvorePrefixos(topK);
+        var novasChaves = new HashMap<Long, String>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var topicos = repository.streamConteudoAtivos()) {
+                topicos.forEach(topico -> {
+                    var chave = chave(topico.titulo());
+                    if (!chave.isEmpty()) {
+                        novaArvore.alterar(chave, topico.titulo(), 1);
+                        novasChaves.put(topico.id(), chave);
+                    }
+                });
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            arvore = novaArvore;
+            chaves = novasChaves;
+            estatisticas = novaArvore.estatisticas();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarTopico(EventoTopico evento) {
+        var topico = evento.topico();
+        var novaChave = evento.tipo() == EventoTopico.Tipo.EXCLUIDO ? "" : chave(topico.titulo());
+
+        lock.writeLock().lock();
+        try {
+            var chaveAnterior = chaves.get(topico.id());
+            if (novaChave.equals(chaveAnterior)) {
+                return;
+            }
+            if (chaveAnterior != null) {
+                arvore.alterar(chaveAnterior, null, -1);
+                chaves.remove(topico.id());
+            }
+            if (!novaChave.isEmpty()) {
+                arvore.alterar(novaChave, topico.titulo(), 1);
+                chaves.put(topico.id(), novaChave);
+            }
+            estatisticas = arvore.estatisticas();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ArvorePrefixos.Sugestao> sugerir(String prefixo, int limite) {
+        var chave = ESPACOS.matcher(Tokenizador.normalizar(prefixo)).replaceAll(" ").stripLeading();
+        if (chave.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return arvore.buscar(chave, Math.min(limite, topK));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ArvorePrefixos.Estatisticas estatisticas() {
+        return estatisticas;
+    }
+
+    private static String chave(String titulo) {
+        return ESPACOS.matcher(Tokenizador.normalizar(titulo)).replaceAll(" ").strip();
+    }
+}
@@ -0,0 +1,190 @@
+package com.forumhub.forumhub.infra.busca;
+
+import com.forumhub.forumhub.dto.topico.DadosConteudoTopico;
+import com.forumhub.forumhub.infra.evento.EventoTopico;
+import com.forumhub.forumhub.repository.TopicoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+// Índice invertido (termo -> tópico -> frequência) sobre título e mensagem dos tópicos ativos,
+// ranqueado por BM25. Termos do título contam "peso-titulo" vezes.
+@Component
+public class IndiceTextual {
+
+    @Value("${app.busca.texto.k1}")
+    private double k1;
+
+    @Value("${app.busca.texto.b}")
+    private double b;
+
+    @Value("${app.busca.texto.peso-titulo}")
+    private int pesoTitulo;
+
+    @Value("${app.busca.texto.paralelismo}")
+    private int paralelismo;
+
+    @Autowired
+    private TopicoRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Documento> documentos = new ConcurrentHashMap<>();
+    private final AtomicLong totalTermos = new AtomicLong();
+
+    private record Documento(Map<String, Integer> frequencias, int tamanho) {
+    }
+
+    private record Pontuacao(long id, double valor) {
+    }
+
+    // Cada thread lê uma faixa de ids em sua própria transação
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        var maiorId = repository.findMaiorId();
+        if (maiorId == 0) {
+            return;
+        }
+
+        var tamanhoFaixa = maiorId / paralelismo + 1;
+        try (var executor = Executors.newFixedThreadPool(paralelismo)) {
+            var tarefas = LongStream.range(0, paralelismo)
+                    .mapToObj(i -> CompletableFuture.runAsync(
+                            () -> indexarFaixa(i * tamanhoFaixa, (i + 1) * tamanhoFaixa), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(tarefas).join();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarTopico(EventoTopico evento) {
+        if (evento.tipo() == EventoTopico.Tipo.EXCLUIDO) {
+            remover(evento.topico().id());
+        } else {
+            indexar(evento.topico());
+        }
+    }
+
+    // Devolve os ids da página pedida, em ordem de relevância, e o total de tópicos encontrados
+    public Page<Long> buscar(String consulta, Pageable paginacao) {
+        var termos = new LinkedHashSet<>(Tokenizador.termos(consulta));
+        var quantidadeDocumentos = documentos.size();
+        if (termos.isEmpty() || quantidadeDocumentos == 0) {
+            return Page.empty(paginacao);
+        }
+
+        var tamanhoMedio = (double) totalTermos.get() / quantidadeDocumentos;
+        var pontuacoes = new HashMap<Long, Double>();
+        for (var termo : termos) {
+            var topicos = postings.get(termo);
+            if (topicos == null) {
+                continue;
+            }
+            var frequenciaDocumentos = topicos.size();
+            var idf = Math.log(1 + (quantidadeDocumentos - frequenciaDocumentos + 0.5) / (frequenciaDocumentos + 0.5));
+            topicos.forEach((id, frequencia) -> {
+                var documento = documentos.get(id);
+                if (documento == null) {
+                    return;
+                }
+                var normalizacao = k1 * (1 - b + b * documento.tamanho() / tamanhoMedio);
+                var valor = idf * frequencia * (k1 + 1) / (frequencia + normalizacao);
+                pontuacoes.merge(id, valor, Double::sum);
+            });
+        }
+
+        // Heap limitado ao fim da página pedida: não ordena todos os resultados
+        var limite = (int) Math.min(paginacao.getOffset() + paginacao.getPageSize(), pontuacoes.size());
+        var ordem = Comparator.comparingDouble(Pontuacao::valor).thenComparingLong(Pontuacao::id);
+        var melhores = new PriorityQueue<>(Math.max(limite, 1), ordem);
+        pontuacoes.forEach((id, valor) -> {
+            var pontuacao = new Pontuacao(id, valor);
+            if (melhores.size() < limite) {
+                melhores.add(pontuacao);
+            } else if (limite > 0 && ordem.compare(pontuacao, melhores.peek()) > 0) {
+                melhores.poll();
+                melhores.add(pontuacao);
+            }
+        });
+
+        var ranking = new ArrayList<Long>(melhores.size());
+        while (!melhores.isEmpty()) {
+            ranking.add(melhores.poll().id());
+        }
+        Collections.reverse(ranking);
+
+        var inicio = (int) Math.min(paginacao.getOffset(), ranking.size());
+        return new PageImpl<>(ranking.subList(inicio, ranking.size()), paginacao, pontuacoes.size());
+    }
+
+    void indexar(DadosConteudoTopico topico) {
+        var frequencias = frequencias(topico.titulo(), topico.mensagem());
+        var tamanho = frequencias.values().stream().mapToInt(Integer::intValue).sum();
+
+        documentos.compute(topico.id(), (id, anterior) -> {
+            if (anterior != null) {
+                removerPostings(id, anterior);
+            }
+            if (frequencias.isEmpty()) {
+                return null;
+            }
+            frequencias.forEach((termo, frequencia) -> postings.compute(termo, (chave, topicos) -> {
+                var mapa = topicos != null ? topicos : new ConcurrentHashMap<Long, Integer>();
+                mapa.put(id, frequencia);
+                return mapa;
+            }));
+            totalTermos.addAndGet(tamanho);
+            return new Documento(frequencias, tamanho);
+        });
+    }
+
+    void remover(Long id) {
+        documentos.computeIfPresent(id, (chave, anterior) -> {
+            removerPostings(chave, anterior);
+            return null;
+        });
+    }
+
+    private void indexarFaixa(long inicio, long fim) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var topicos = repository.streamConteudoAtivosEntre(inicio, fim)) {
+                topicos.forEach(this::indexar);
+            }
+        });
+    }
+
+    private Map<String, Integer> frequencias(String titulo, String mensagem) {
+        var frequencias = new HashMap<String, Integer>();
+        for (var termo : Tokenizador.termos(titulo)) {
+            frequencias.merge(termo, pesoTitulo, Integer::sum);
+        }
+        for (var termo : Tokenizador.termos(mensagem)) {
+            frequencias.merge(termo, 1, Integer::sum);
+        }
+        return frequencias;
+    }
+
+    private void removerPostings(Long id, Documento documento) {
+        documento.frequencias().keySet().forEach(termo -> postings.computeIfPresent(termo, (chave, topicos) -> {
+            topicos.remove(id);
+            return topicos.isEmpty() ? null : topicos;
+        }));
+        totalTermos.addAndGet(-documento.tamanho());
+    }
+}
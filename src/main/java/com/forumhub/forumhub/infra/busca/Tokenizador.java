@@ -0,0 +1,46 @@
+package com.forumhub.forumhub.infra.busca;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public class Tokenizador {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Já normalizadas (sem acento), já que a comparação é feita depois de normalizar
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "ao", "aos", "as", "com", "como", "da", "das", "de", "do", "dos", "e", "ela", "ele", "em",
+            "entre", "era", "essa", "esse", "esta", "este", "eu", "foi", "ha", "isso", "isto", "ja", "mais",
+            "mas", "me", "meu", "minha", "na", "nas", "nao", "no", "nos", "o", "os", "ou", "para", "pela",
+            "pelo", "por", "qual", "que", "se", "sem", "ser", "seu", "sua", "tem", "um", "uma", "voce");
+
+    private Tokenizador() {
+    }
+
+    // "Ação" -> "acao"
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        var semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> tokens(String texto) {
+        return Arrays.stream(SEPARADORES.split(normalizar(texto)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    // Tokens úteis para busca textual: sem stopwords
+    public static List<String> termos(String texto) {
+        return tokens(texto).stream()
+                .filter(token -> !STOPWORDS.contains(token))
+                .toList();
+    }
+}
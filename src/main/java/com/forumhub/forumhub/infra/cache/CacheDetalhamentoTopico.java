@@ -0,0 +1,109 @@
+package com.forumhub.forumhub.infra.cache;
+
+import com.forumhub.forumhub.dto.topico.DadosDetalhamentoTopico;
+import com.forumhub.forumhub.infra.evento.EventoResposta;
+import com.forumhub.forumhub.infra.evento.EventoTopico;
+import com.forumhub.forumhub.repository.TopicoRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Cache read-through do detalhe de tópico. O AsyncLoadingCache carrega cada id uma vez só:
+// requisições simultâneas para o mesmo id esperam o mesmo future (single-flight). A consulta roda
+// numa thread virtual fora do compute do mapa, então quem espera não fica preso a um lock nativo
+// (o LoadingCache síncrono carregava dentro do ConcurrentHashMap.compute e fixava a thread virtual).
+// A invalidação acontece depois do commit e tira do mapa também a carga em andamento: o resultado
+// dela chega só para quem já esperava e não fica no cache.
+@Component
+public class CacheDetalhamentoTopico {
+
+    @Value("${app.cache.topicos.max-size}")
+    private long tamanhoMaximo;
+
+    @Value("${app.cache.topicos.ttl}")
+    private Duration expiracao;
+
+    @Autowired
+    private TopicoRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ExecutorService cargas = Executors.newVirtualThreadPerTaskExecutor();
+    private AsyncLoadingCache<Long, TopicoVersionado> cache;
+
+    // A versão vai junto para o ETag sair do cache, sem consultar o banco
+    public record TopicoVersionado(DadosDetalhamentoTopico dados, Long versao) {
+    }
+
+    @PostConstruct
+    void inicializar() {
+        // Tópico inexistente não é guardado: o carregador devolve null
+        cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .executor(cargas)
+                .buildAsync(id -> repository.findAtivoById(id)
+                        .map(topico -> new TopicoVersionado(new DadosDetalhamentoTopico(topico), topico.getVersao()))
+                        .orElse(null));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "topicos");
+        Gauge.builder("forumhub.cache.topicos.taxa-acerto", cache, c -> c.synchronous().stats().hitRate())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        cargas.close();
+    }
+
+    public Optional<TopicoVersionado> buscar(Long id) {
+        try {
+            return Optional.ofNullable(cache.get(id).get());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Carga do tópico interrompida.", e);
+        }
+    }
+
+    public void remover(Long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarTopico(EventoTopico evento) {
+        remover(evento.topico().id());
+    }
+
+    // Respostas mudam o status do tópico por UPDATE direto, sem passar pelo TopicoListener
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarResposta(EventoResposta evento) {
+        remover(evento.idTopico());
+    }
+
+    public void removerTodos() {
+        cache.synchronous().invalidateAll();
+    }
+}
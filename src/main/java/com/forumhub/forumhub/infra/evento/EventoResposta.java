@@ -0,0 +1,14 @@
+package com.forumhub.forumhub.infra.evento;
+
+import com.forumhub.forumhub.dto.resposta.DadosListagemResposta;
+
+// Publicado pelo RespostaController; consumido depois do commit
+public record EventoResposta(Tipo tipo, Long idTopico, DadosListagemResposta resposta) {
+
+    public enum Tipo {
+        CRIADA,
+        ATUALIZADA,
+        SOLUCAO_ACEITA,
+        EXCLUIDA
+    }
+}
@@ -0,0 +1,13 @@
+package com.forumhub.forumhub.infra.evento;
+
+import com.forumhub.forumhub.dto.topico.DadosConteudoTopico;
+
+// Publicado pelo TopicoListener; os índices em memória consomem depois do commit
+public record EventoTopico(Tipo tipo, DadosConteudoTopico topico) {
+
+    public enum Tipo {
+        CRIADO,
+        ATUALIZADO,
+        EXCLUIDO
+    }
+}
@@ -0,0 +1,273 @@
+package com.forumhub.forumhub.infra.evento;
+
+import com.forumhub.forumhub.dto.resposta.DadosListagemResposta;
+import com.forumhub.forumhub.infra.exception.SobrecargaException;
+import com.forumhub.forumhub.infra.paginacao.Cursor;
+import com.forumhub.forumhub.repository.RespostaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Distribui as respostas novas de cada tópico para as conexões SSE abertas nele. Conexões ociosas
+// não ocupam thread (SseEmitter é assíncrono): cada assinante tem uma fila limitada e só ganha uma
+// thread virtual enquanto tem eventos para escrever. Quem deixa a fila encher é desconectado e
+// retoma pelo Last-Event-ID, que é o cursor (dataCriacao, id) da última resposta recebida.
+// As respostas ao vivo saem na ordem em que os commits acontecem, que nem sempre é a do cursor.
+@Component
+public class HubRespostas {
+
+    private static final String EVENTO_RESPOSTA = "resposta";
+    private static final String EVENTO_REINICIAR = "reiniciar";
+
+    @Value("${app.respostas.stream.buffer}")
+    private int capacidadeFila;
+
+    @Value("${app.respostas.stream.max-assinantes}")
+    private int maxAssinantes;
+
+    @Value("${app.respostas.stream.timeout}")
+    private Duration timeout;
+
+    @Value("${app.respostas.stream.retry-after}")
+    private Duration retryAfter;
+
+    @Autowired
+    private RespostaRepository respostaRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, Set<Assinante>> assinantes = new ConcurrentHashMap<>();
+    private final AtomicInteger totalAssinantes = new AtomicInteger();
+    private final ExecutorService entregas = Executors.newVirtualThreadPerTaskExecutor();
+    private Counter desconectadosPorLentidao;
+
+    // Item da fila: uma resposta ou um heartbeat (resposta nula)
+    private record Item(DadosListagemResposta resposta) {
+    }
+
+    private static final Item HEARTBEAT = new Item(null);
+
+    @PostConstruct
+    void inicializar() {
+        desconectadosPorLentidao = meterRegistry.counter("forumhub.respostas.stream.lentos");
+        Gauge.builder("forumhub.respostas.stream.assinantes", totalAssinantes, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        assinantes.values().forEach(assinantesDoTopico -> assinantesDoTopico.forEach(Assinante::fechar));
+        entregas.close();
+    }
+
+    // Registra antes de reenviar o histórico: o que chegar durante o reenvio fica na fila e é
+    // entregue depois, sem repetir o que o histórico já cobriu. Se o reenvio falhar, o assinante já
+    // saiu do hub e a requisição termina com o erro.
+    public SseEmitter assinar(Long idTopico, String ultimoEventoId) {
+        if (totalAssinantes.incrementAndGet() > maxAssinantes) {
+            totalAssinantes.decrementAndGet();
+            throw new SobrecargaException("Muitas conexões abertas. Tente novamente em instantes.", retryAfter);
+        }
+
+        var assinante = new Assinante(idTopico, new SseEmitter(timeout.toMillis()));
+        // compute/computeIfPresent: inclusão e remoção atômicas por tópico, sem conjunto órfão
+        assinantes.compute(idTopico, (id, conjunto) -> {
+            var atual = conjunto != null ? conjunto : ConcurrentHashMap.<Assinante>newKeySet();
+            atual.add(assinante);
+            return atual;
+        });
+        assinante.emitter.onCompletion(() -> remover(assinante));
+        assinante.emitter.onTimeout(assinante::fechar);
+        assinante.emitter.onError(erro -> remover(assinante));
+
+        try {
+            if (ultimoEventoId != null && !ultimoEventoId.isBlank()) {
+                reenviar(assinante, Cursor.decodificar(ultimoEventoId));
+            }
+        } catch (RuntimeException e) {
+            remover(assinante);
+            throw e;
+        }
+        if (assinante.erro != null) {
+            var falha = new SseEmitter();
+            falha.completeWithError(assinante.erro);
+            return falha;
+        }
+        assinante.liberar();
+        return assinante.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarResposta(EventoResposta evento) {
+        if (evento.tipo() != EventoResposta.Tipo.CRIADA) {
+            return;
+        }
+        var assinantesDoTopico = assinantes.get(evento.idTopico());
+        if (assinantesDoTopico != null) {
+            var item = new Item(evento.resposta());
+            assinantesDoTopico.forEach(assinante -> assinante.enfileirar(item));
+        }
+    }
+
+    // Mantém proxies e balanceadores sem fechar conexões ociosas e descobre clientes que já saíram
+    @Scheduled(initialDelayString = "${app.respostas.stream.heartbeat}", fixedDelayString = "${app.respostas.stream.heartbeat}")
+    public void enviarHeartbeats() {
+        assinantes.values().forEach(assinantesDoTopico -> assinantesDoTopico.forEach(assinante -> assinante.enfileirar(HEARTBEAT)));
+    }
+
+    public int totalAssinantes() {
+        return totalAssinantes.get();
+    }
+
+    private void reenviar(Assinante assinante, Cursor ultimo) {
+        var perdidas = respostaRepository.findPaginaApos(assinante.idTopico, ultimo.dataCriacao(), ultimo.id(),
+                Limit.of(capacidadeFila + 1));
+        if (perdidas.size() > capacidadeFila) {
+            // Histórico maior que a fila: o cliente recarrega pela listagem e segue só com as novas
+            assinante.enviarDireto(SseEmitter.event().name(EVENTO_REINICIAR).data(""));
+            return;
+        }
+        for (var resposta : perdidas) {
+            if (!assinante.enviarResposta(resposta)) {
+                return;
+            }
+            assinante.reenviadas.add(resposta.id());
+        }
+    }
+
+    private void remover(Assinante assinante) {
+        assinantes.computeIfPresent(assinante.idTopico, (id, conjunto) -> {
+            if (conjunto.remove(assinante)) {
+                totalAssinantes.decrementAndGet();
+            }
+            return conjunto.isEmpty() ? null : conjunto;
+        });
+    }
+
+    private final class Assinante {
+        final Long idTopico;
+        final SseEmitter emitter;
+        final ArrayDeque<Item> fila = new ArrayDeque<>();
+        final ReentrantLock lock = new ReentrantLock();
+
+        // Só a entrega ativa (ou o reenvio, antes de liberar) mexe aqui. Ids do histórico reenviado
+        // (no máximo "buffer"): a mesma resposta pode estar no histórico e também chegar pelo evento
+        final Set<Long> reenviadas = new HashSet<>();
+        Exception erro;
+
+        // Começa "agendado" para que nada seja entregue antes do reenvio terminar
+        boolean agendado = true;
+        boolean fechado;
+
+        Assinante(Long idTopico, SseEmitter emitter) {
+            this.idTopico = idTopico;
+            this.emitter = emitter;
+        }
+
+        void enfileirar(Item item) {
+            lock.lock();
+            try {
+                if (fechado) {
+                    return;
+                }
+                if (fila.size() >= capacidadeFila) {
+                    desconectadosPorLentidao.increment();
+                    fecharComLock();
+                    return;
+                }
+                fila.add(item);
+                if (!agendado) {
+                    agendado = true;
+                    entregas.execute(this::entregar);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void liberar() {
+            entregas.execute(this::entregar);
+        }
+
+        void fechar() {
+            lock.lock();
+            try {
+                fecharComLock();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Libera a vaga na hora; o complete() espera um send em andamento (o de um cliente lento pode
+        // ficar preso até o timeout de escrita), então roda na thread de entrega e não em quem publicou
+        private void fecharComLock() {
+            if (!fechado) {
+                fechado = true;
+                fila.clear();
+                remover(this);
+                entregas.execute(emitter::complete);
+            }
+        }
+
+        // Escreve fora do lock: um cliente lento só segura a própria thread virtual
+        private void entregar() {
+            while (true) {
+                Item item;
+                lock.lock();
+                try {
+                    item = fila.poll();
+                    if (item == null || fechado) {
+                        agendado = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                if (item == HEARTBEAT) {
+                    enviarDireto(SseEmitter.event().comment("heartbeat"));
+                } else if (!reenviadas.contains(item.resposta().id())) {
+                    enviarResposta(item.resposta());
+                }
+            }
+        }
+
+        boolean enviarResposta(DadosListagemResposta resposta) {
+            var cursor = new Cursor(resposta.dataCriacao(), resposta.id());
+            return enviarDireto(SseEmitter.event().id(cursor.codificar()).name(EVENTO_RESPOSTA).data(resposta));
+        }
+
+        boolean enviarDireto(SseEmitter.SseEventBuilder evento) {
+            try {
+                emitter.send(evento);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                erro = e;
+                fechar();
+            }
+            return false;
+        }
+    }
+}
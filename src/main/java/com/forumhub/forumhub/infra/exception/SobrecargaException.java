@@ -0,0 +1,17 @@
+package com.forumhub.forumhub.infra.exception;
+
+import java.time.Duration;
+
+public class SobrecargaException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public SobrecargaException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -1,14 +1,31 @@
 package com.forumhub.forumhub.infra.exception;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.beans.factory.annotation.Value;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
 @RestControllerAdvice
 public class TratadorDeErros {
 
+    private static final String UNICIDADE_TOPICO = "uk_topicos_hash_conteudo";
+
+    @Value("${app.datasource.retry-after}")
+    private Duration retryAfterBanco;
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity tratarErro404() {
         return ResponseEntity.notFound().build();
@@ -24,4 +41,46 @@ public class TratadorDeErros {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ex.getMessage());
     }
 
+    @ExceptionHandler(SobrecargaException.class)
+    public ResponseEntity tratarErroSobrecarga(SobrecargaException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(ex.getMessage());
+    }
+
+    // Timeout esperando conexão do pool (Hikari): sobrecarga passageira, não erro do servidor
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity tratarErroPoolEsgotado(RuntimeException ex) {
+        Throwable causa = ex;
+        while (causa != null && !(causa instanceof SQLTransientConnectionException)) {
+            causa = causa.getCause();
+        }
+        if (causa == null) {
+            throw ex;
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterBanco.toSeconds()))
+                .body("Servidor ocupado. Tente novamente em instantes.");
+    }
+
+    // Dois cadastros iguais ao mesmo tempo passam pela verificação prévia; o índice único decide
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity tratarErroIntegridade(DataIntegrityViolationException ex) {
+        Throwable causa = ex;
+        while (causa != null && !(causa instanceof ConstraintViolationException)) {
+            causa = causa.getCause();
+        }
+        // O MySQL 8 informa a chave como "tabela.indice"
+        var restricao = causa != null ? ((ConstraintViolationException) causa).getConstraintName() : null;
+        if (restricao == null || !restricao.toLowerCase().endsWith(UNICIDADE_TOPICO)) {
+            throw ex;
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Tópico duplicado! Tente criar um tópico com título e mensagem diferentes!");
+    }
+
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class, PessimisticLockingFailureException.class})
+    public ResponseEntity tratarErroConcorrencia() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("O recurso foi alterado por outra requisição. Recarregue e tente novamente.");
+    }
+
 }
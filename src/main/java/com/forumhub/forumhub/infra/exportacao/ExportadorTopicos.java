@@ -0,0 +1,167 @@
+package com.forumhub.forumhub.infra.exportacao;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.forumhub.forumhub.dto.exportacao.DadosLinhaExportacao;
+import com.forumhub.forumhub.model.Topico;
+import com.forumhub.forumhub.repository.TopicoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Objects;
+
+// Exportação de tópicos ativos direto do cursor para a saída, sem montar páginas nem entidades:
+// cada linha lida é escrita e descartada, então a memória usada não depende do total exportado.
+// No NDJSON as respostas vêm dentro do tópico; no CSV cada resposta é uma linha.
+@Component
+public class ExportadorTopicos {
+
+    private static final String[] COLUNAS_TOPICO = {"id", "titulo", "mensagem", "data_criacao", "status", "autor",
+            "curso", "total_respostas", "data_ultima_atividade"};
+
+    private static final String[] COLUNAS_RESPOSTA = {"id_resposta", "mensagem_resposta", "data_criacao_resposta",
+            "autor_resposta", "solucao"};
+
+    @Autowired
+    private TopicoRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void exportar(FormatoExportacao formato, Specification<Topico> spec, boolean comRespostas, OutputStream saida) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var linhas = repository.streamExportacao(spec, comRespostas)) {
+                if (formato == FormatoExportacao.CSV) {
+                    escreverCsv(linhas.iterator(), comRespostas, saida);
+                } else {
+                    escreverNdjson(linhas.iterator(), comRespostas, saida);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Linhas do mesmo tópico chegam seguidas (ordem por id): abre o objeto no primeiro e fecha ao trocar
+    private void escreverNdjson(Iterator<DadosLinhaExportacao> linhas, boolean comRespostas, OutputStream saida) throws IOException {
+        var gerador = objectMapper.createGenerator(saida);
+        gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Sem o espaço padrão entre valores de raiz: cada tópico termina com a própria quebra de linha
+        gerador.setRootValueSeparator(null);
+
+        Long topicoAtual = null;
+        while (linhas.hasNext()) {
+            var linha = linhas.next();
+            if (!linha.id().equals(topicoAtual)) {
+                if (topicoAtual != null) {
+                    fecharTopico(gerador, comRespostas);
+                }
+                abrirTopico(gerador, linha, comRespostas);
+                topicoAtual = linha.id();
+            }
+            if (comRespostas && linha.idResposta() != null) {
+                gerador.writeStartObject();
+                gerador.writeNumberField("id", linha.idResposta());
+                gerador.writeStringField("mensagem", linha.mensagemResposta());
+                gerador.writeObjectField("dataCriacao", linha.dataCriacaoResposta());
+                gerador.writeStringField("autor", linha.autorResposta());
+                gerador.writeBooleanField("solucao", Boolean.TRUE.equals(linha.solucao()));
+                gerador.writeEndObject();
+            }
+        }
+        if (topicoAtual != null) {
+            fecharTopico(gerador, comRespostas);
+        }
+        gerador.close();
+    }
+
+    private static void abrirTopico(JsonGenerator gerador, DadosLinhaExportacao linha, boolean comRespostas) throws IOException {
+        gerador.writeStartObject();
+        gerador.writeNumberField("id", linha.id());
+        gerador.writeStringField("titulo", linha.titulo());
+        gerador.writeStringField("mensagem", linha.mensagem());
+        gerador.writeObjectField("dataCriacao", linha.dataCriacao());
+        gerador.writeObjectField("status", linha.status());
+        gerador.writeStringField("autor", linha.autor());
+        gerador.writeStringField("curso", linha.curso());
+        gerador.writeNumberField("totalRespostas", linha.totalRespostas());
+        gerador.writeObjectField("dataUltimaAtividade", linha.dataUltimaAtividade());
+        if (comRespostas) {
+            gerador.writeArrayFieldStart("respostas");
+        }
+    }
+
+    private static void fecharTopico(JsonGenerator gerador, boolean comRespostas) throws IOException {
+        if (comRespostas) {
+            gerador.writeEndArray();
+        }
+        gerador.writeEndObject();
+        gerador.writeRaw('\n');
+    }
+
+    private static void escreverCsv(Iterator<DadosLinhaExportacao> linhas, boolean comRespostas, OutputStream saida) throws IOException {
+        var escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        escreverRegistro(escritor, comRespostas ? concatenar(COLUNAS_TOPICO, COLUNAS_RESPOSTA) : COLUNAS_TOPICO);
+
+        while (linhas.hasNext()) {
+            var linha = linhas.next();
+            var topico = new String[]{texto(linha.id()), linha.titulo(), linha.mensagem(), data(linha.dataCriacao()),
+                    texto(linha.status()), linha.autor(), linha.curso(), texto(linha.totalRespostas()),
+                    data(linha.dataUltimaAtividade())};
+            if (comRespostas) {
+                escreverRegistro(escritor, concatenar(topico, new String[]{texto(linha.idResposta()),
+                        linha.mensagemResposta(), data(linha.dataCriacaoResposta()), linha.autorResposta(),
+                        texto(linha.solucao())}));
+            } else {
+                escreverRegistro(escritor, topico);
+            }
+        }
+        escritor.flush();
+    }
+
+    // RFC 4180: aspas em volta do campo quando ele tem vírgula, aspas ou quebra de linha
+    private static void escreverRegistro(Writer escritor, String[] campos) throws IOException {
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) {
+                escritor.write(',');
+            }
+            var campo = campos[i];
+            if (campo == null) {
+                continue;
+            }
+            if (campo.indexOf(',') >= 0 || campo.indexOf('"') >= 0 || campo.indexOf('\n') >= 0 || campo.indexOf('\r') >= 0) {
+                escritor.write('"');
+                escritor.write(campo.replace("\"", "\"\""));
+                escritor.write('"');
+            } else {
+                escritor.write(campo);
+            }
+        }
+        escritor.write("\r\n");
+    }
+
+    private static String[] concatenar(String[] inicio, String[] fim) {
+        var campos = new String[inicio.length + fim.length];
+        System.arraycopy(inicio, 0, campos, 0, inicio.length);
+        System.arraycopy(fim, 0, campos, inicio.length, fim.length);
+        return campos;
+    }
+
+    private static String texto(Object valor) {
+        return Objects.toString(valor, null);
+    }
+
+    private static String data(LocalDateTime data) {
+        return data != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(data) : null;
+    }
+}
@@ -0,0 +1,34 @@
+package com.forumhub.forumhub.infra.exportacao;
+
+import com.forumhub.forumhub.infra.exception.ValidacaoException;
+
+import java.util.Locale;
+
+public enum FormatoExportacao {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String tipoConteudo;
+    private final String extensao;
+
+    FormatoExportacao(String tipoConteudo, String extensao) {
+        this.tipoConteudo = tipoConteudo;
+        this.extensao = extensao;
+    }
+
+    public String tipoConteudo() {
+        return tipoConteudo;
+    }
+
+    public String extensao() {
+        return extensao;
+    }
+
+    public static FormatoExportacao de(String formato) {
+        try {
+            return valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidacaoException("Formato de exportação inválido! Use ndjson ou csv.");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.forumhub.forumhub.infra.http;
+
+import com.forumhub.forumhub.dto.resposta.DadosVersaoRespostas;
+
+import java.util.Arrays;
+
+// ETags fortes derivados da coluna de versão, sem precisar serializar o corpo para calcular
+public class ETags {
+
+    private ETags() {
+    }
+
+    public static String deVersao(Long versao) {
+        return "\"" + versao + "\"";
+    }
+
+    // A versão do tópico sobe a cada inclusão, exclusão, edição e aceite de resposta (UPDATEs do
+    // TopicoRepository), então serve de contador de modificações da coleção. Somas de ids e versões
+    // não serviam: com ids de sequência pooled, uma exclusão mais uma inclusão podiam repetir a tupla.
+    public static String deRespostas(DadosVersaoRespostas versao) {
+        return "\"" + versao.versaoTopico() + "\"";
+    }
+
+    // Versão do tópico em cache (corpo do tópico) e a lida agora no banco (respostas)
+    public static String deTopicoComRespostas(Long versaoTopico, DadosVersaoRespostas versaoRespostas) {
+        return "\"" + versaoTopico + "-" + versaoRespostas.versaoTopico() + "\"";
+    }
+
+    // If-Match usa comparação forte: ETags fracos (W/) nunca atendem
+    public static boolean atende(String ifMatch, String etag) {
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidato -> candidato.equals("*") || candidato.equals(etag));
+    }
+}
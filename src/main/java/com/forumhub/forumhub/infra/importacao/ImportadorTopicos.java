@@ -0,0 +1,264 @@
+package com.forumhub.forumhub.infra.importacao;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.forumhub.forumhub.dto.importacao.DadosErroImportacao;
+import com.forumhub.forumhub.dto.importacao.DadosImportacaoResposta;
+import com.forumhub.forumhub.dto.importacao.DadosImportacaoTopico;
+import com.forumhub.forumhub.dto.importacao.DadosResultadoImportacao;
+import com.forumhub.forumhub.infra.topico.FiltroDuplicidadeTopico;
+import com.forumhub.forumhub.infra.topico.ReconciliacaoAtividadeTopico;
+import com.forumhub.forumhub.model.Resposta;
+import com.forumhub.forumhub.model.StatusTopico;
+import com.forumhub.forumhub.model.Topico;
+import com.forumhub.forumhub.model.Usuario;
+import com.forumhub.forumhub.repository.TopicoRepository;
+import com.forumhub.forumhub.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Importação em massa de tópicos (com respostas) a partir de NDJSON, um tópico por linha.
+// O corpo é lido em streaming e gravado em lotes de "app.importacao.lote" linhas, cada lote
+// na sua própria transação: INSERTs agrupados pelo batching do Hibernate, ids reservados em
+// blocos (SequenceGenerator pooled) e contadores calculados numa única passada no fim do lote.
+// Linhas inválidas viram erros no relatório e duplicadas só são contadas; nenhuma interrompe a importação.
+// Se o banco rejeitar uma linha, o lote é refeito linha a linha e só ela entra no relatório.
+@Component
+public class ImportadorTopicos {
+
+    @Value("${app.importacao.lote}")
+    private int tamanhoLote;
+
+    @Value("${app.importacao.max-erros}")
+    private int maxErros;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private FiltroDuplicidadeTopico filtroDuplicidade;
+
+    @Autowired
+    private ReconciliacaoAtividadeTopico reconciliacaoAtividade;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    private record Linha(long numero, DadosImportacaoTopico dados, String hashConteudo) {
+    }
+
+    private record ResultadoLote(long topicos, long respostas, long duplicados, List<DadosErroImportacao> erros) {
+    }
+
+    private static final class Relatorio {
+        long linhasLidas;
+        long topicosImportados;
+        long respostasImportadas;
+        long duplicados;
+        long totalErros;
+        final List<DadosErroImportacao> erros = new ArrayList<>();
+    }
+
+    public DadosResultadoImportacao importar(InputStream entrada) throws IOException {
+        var relatorio = new Relatorio();
+        var lote = new ArrayList<Linha>(tamanhoLote);
+
+        try (var leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            String conteudo;
+            long numero = 0;
+            while ((conteudo = leitor.readLine()) != null) {
+                numero++;
+                if (conteudo.isBlank()) {
+                    continue;
+                }
+                relatorio.linhasLidas++;
+
+                var linha = interpretar(numero, conteudo, relatorio);
+                if (linha != null) {
+                    lote.add(linha);
+                }
+                if (lote.size() == tamanhoLote) {
+                    gravarLote(lote, relatorio);
+                    lote.clear();
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            gravarLote(lote, relatorio);
+        }
+
+        return new DadosResultadoImportacao(relatorio.linhasLidas, relatorio.topicosImportados,
+                relatorio.respostasImportadas, relatorio.duplicados, relatorio.totalErros, relatorio.erros);
+    }
+
+    private Linha interpretar(long numero, String conteudo, Relatorio relatorio) {
+        DadosImportacaoTopico dados;
+        try {
+            dados = objectMapper.readValue(conteudo, DadosImportacaoTopico.class);
+        } catch (JsonProcessingException e) {
+            registrarErro(relatorio, numero, "JSON inválido: " + e.getOriginalMessage());
+            return null;
+        }
+
+        var violacoes = validator.validate(dados);
+        if (!violacoes.isEmpty()) {
+            var mensagem = violacoes.stream()
+                    .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            registrarErro(relatorio, numero, mensagem);
+            return null;
+        }
+
+        return new Linha(numero, dados, Topico.gerarHashConteudo(dados.titulo(), dados.mensagem()));
+    }
+
+    private void gravarLote(List<Linha> lote, Relatorio relatorio) {
+        try {
+            somar(relatorio, transactionTemplate.execute(status -> gravar(lote)));
+        } catch (RuntimeException e) {
+            // Uma linha ruim desfaz o lote inteiro: regrava linha a linha, cada uma na sua transação,
+            // para o relatório apontar só as linhas que realmente falham
+            for (var linha : lote) {
+                try {
+                    somar(relatorio, transactionTemplate.execute(status -> gravar(List.of(linha))));
+                } catch (RuntimeException erroLinha) {
+                    registrarErro(relatorio, linha.numero(), "Falha ao gravar a linha: " + erroLinha.getMessage());
+                }
+            }
+        }
+    }
+
+    private void somar(Relatorio relatorio, ResultadoLote resultado) {
+        relatorio.topicosImportados += resultado.topicos();
+        relatorio.respostasImportadas += resultado.respostas();
+        relatorio.duplicados += resultado.duplicados();
+        resultado.erros().forEach(erro -> registrarErro(relatorio, erro.linha(), erro.erro()));
+    }
+
+    private ResultadoLote gravar(List<Linha> lote) {
+        // Duplicidade dentro do lote e contra o banco, com uma consulta por lote
+        var hashesCandidatos = lote.stream()
+                .map(Linha::hashConteudo)
+                .filter(filtroDuplicidade::talvezExista)
+                .collect(Collectors.toSet());
+        var existentes = hashesCandidatos.isEmpty()
+                ? Set.<String>of()
+                : topicoRepository.findHashesExistentes(hashesCandidatos);
+
+        var erros = new ArrayList<DadosErroImportacao>();
+        long duplicados = 0;
+        var vistos = new HashSet<String>();
+        var validas = new ArrayList<Linha>(lote.size());
+        for (var linha : lote) {
+            if (existentes.contains(linha.hashConteudo()) || !vistos.add(linha.hashConteudo())) {
+                duplicados++;
+            } else {
+                validas.add(linha);
+            }
+        }
+
+        var logins = validas.stream()
+                .map(Linha::dados)
+                .filter(dados -> dados.respostas() != null)
+                .flatMap(dados -> dados.respostas().stream())
+                .map(DadosImportacaoResposta::autor)
+                .collect(Collectors.toSet());
+        var autores = logins.isEmpty()
+                ? Map.<String, Usuario>of()
+                : usuarioRepository.findAllByLoginIn(logins).stream()
+                        .collect(Collectors.toMap(Usuario::getLogin, Function.identity()));
+
+        long topicos = 0;
+        long respostas = 0;
+        long menorId = Long.MAX_VALUE;
+        long maiorId = Long.MIN_VALUE;
+        for (var linha : validas) {
+            var autorDesconhecido = autorDesconhecido(linha.dados(), autores);
+            if (autorDesconhecido != null) {
+                erros.add(new DadosErroImportacao(linha.numero(), "Usuário não encontrado: " + autorDesconhecido));
+                continue;
+            }
+
+            var topico = montarTopico(linha.dados(), autores);
+            entityManager.persist(topico);
+            topicos++;
+            respostas += topico.getRespostas().size();
+            menorId = Math.min(menorId, topico.getId());
+            maiorId = Math.max(maiorId, topico.getId());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        if (topicos > 0) {
+            reconciliacaoAtividade.reconciliarFaixa(menorId, maiorId + 1);
+        }
+        return new ResultadoLote(topicos, respostas, duplicados, erros);
+    }
+
+    private static String autorDesconhecido(DadosImportacaoTopico dados, Map<String, Usuario> autores) {
+        if (dados.respostas() == null) {
+            return null;
+        }
+        return dados.respostas().stream()
+                .map(DadosImportacaoResposta::autor)
+                .filter(login -> !autores.containsKey(login))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static Topico montarTopico(DadosImportacaoTopico dados, Map<String, Usuario> autores) {
+        var dataCriacao = dados.dataCriacao() != null ? dados.dataCriacao() : LocalDateTime.now();
+        var respostas = dados.respostas() != null ? dados.respostas() : List.<DadosImportacaoResposta>of();
+
+        var status = StatusTopico.NAO_RESPONDIDO;
+        if (respostas.stream().anyMatch(resposta -> Boolean.TRUE.equals(resposta.solucao()))) {
+            status = StatusTopico.SOLUCIONADO;
+        } else if (!respostas.isEmpty()) {
+            status = StatusTopico.NAO_SOLUCIONADO;
+        }
+
+        var topico = new Topico(null, dados.titulo(), dados.mensagem(), true, dataCriacao, status,
+                new ArrayList<>(), dados.autor(), dados.curso());
+        for (var resposta : respostas) {
+            var dataResposta = resposta.dataCriacao() != null ? resposta.dataCriacao() : dataCriacao;
+            topico.getRespostas().add(new Resposta(null, resposta.mensagem(), topico, dataResposta,
+                    autores.get(resposta.autor()), Boolean.TRUE.equals(resposta.solucao())));
+        }
+        return topico;
+    }
+
+    private void registrarErro(Relatorio relatorio, long linha, String erro) {
+        relatorio.totalErros++;
+        if (relatorio.erros.size() < maxErros) {
+            relatorio.erros.add(new DadosErroImportacao(linha, erro));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.forumhub.forumhub.infra.paginacao;
+
+import com.forumhub.forumhub.infra.exception.ValidacaoException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Posição opaca para paginação por keyset, ordenada por (dataCriacao, id)
+public record Cursor(LocalDateTime dataCriacao, Long id) {
+
+    public String codificar() {
+        var valor = dataCriacao + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decodificar(String cursor) {
+        try {
+            var valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var partes = valor.split("\\|");
+            return new Cursor(LocalDateTime.parse(partes[0]), Long.valueOf(partes[1]));
+        } catch (RuntimeException e) {
+            throw new ValidacaoException("Cursor de paginação inválido!");
+        }
+    }
+}
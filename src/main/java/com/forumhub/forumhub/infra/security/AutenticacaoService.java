@@ -1,14 +1,16 @@
 package com.forumhub.forumhub.infra.security;
 
+import com.forumhub.forumhub.model.Usuario;
 import com.forumhub.forumhub.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class AutenticacaoService implements UserDetailsService {
+public class AutenticacaoService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UsuarioRepository repository;
@@ -18,4 +20,12 @@ public class AutenticacaoService implements UserDetailsService {
         return repository.findByLogin(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
     }
+
+    // Chamado pelo AuthenticationManager quando o hash salvo usa um custo diferente do configurado
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        var usuario = (Usuario) user;
+        usuario.setSenha(newPassword);
+        return repository.save(usuario);
+    }
 }
@@ -0,0 +1,30 @@
+package com.forumhub.forumhub.infra.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Pattern;
+
+// Pede rehash no login sempre que o custo salvo for diferente do configurado (para mais ou para menos)
+public class BCryptCustoPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern HASH_BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$.{53}");
+
+    private final int custo;
+
+    public BCryptCustoPasswordEncoder(int custo) {
+        super(custo);
+        this.custo = custo;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        var matcher = HASH_BCRYPT.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) != custo;
+    }
+}
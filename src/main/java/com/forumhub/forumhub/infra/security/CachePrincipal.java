@@ -0,0 +1,72 @@
+package com.forumhub.forumhub.infra.security;
+
+import com.forumhub.forumhub.model.Usuario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Component
+public class CachePrincipal {
+
+    @Value("${app.security.principal-cache.max-size}")
+    private long tamanhoMaximo;
+
+    @Value("${app.security.principal-cache.ttl}")
+    private Duration expiracao;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, Usuario> cache;
+
+    // Login de cada id em cache, para remover pelo id quando o login mudou
+    private final Map<Long, String> loginsPorId = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void inicializar() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .evictionListener((String login, Usuario usuario, RemovalCause causa) -> {
+                    if (usuario != null) {
+                        loginsPorId.remove(usuario.getId(), login);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principal");
+    }
+
+    public Optional<Usuario> buscar(String login, Function<String, Optional<Usuario>> carregador) {
+        return Optional.ofNullable(cache.get(login, chave -> {
+            var usuario = carregador.apply(chave).orElse(null);
+            if (usuario != null) {
+                loginsPorId.put(usuario.getId(), chave);
+            }
+            return usuario;
+        }));
+    }
+
+    // O login pode ter mudado, então também removemos a entrada do login antigo, achada pelo id
+    public void remover(Usuario usuario) {
+        cache.invalidate(usuario.getLogin());
+        if (usuario.getId() != null) {
+            var loginAnterior = loginsPorId.remove(usuario.getId());
+            if (loginAnterior != null) {
+                cache.invalidate(loginAnterior);
+            }
+        }
+    }
+}
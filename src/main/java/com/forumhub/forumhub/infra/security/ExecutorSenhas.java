@@ -0,0 +1,103 @@
+package com.forumhub.forumhub.infra.security;
+
+import com.forumhub.forumhub.infra.exception.SobrecargaException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Pool dedicado ao BCrypt, para que picos de login não ocupem as threads do Tomcat
+@Component
+public class ExecutorSenhas {
+
+    @Value("${app.security.senha.threads}")
+    private int threads;
+
+    @Value("${app.security.senha.fila}")
+    private int tamanhoFila;
+
+    @Value("${app.security.senha.retry-after}")
+    private Duration retryAfter;
+
+    @Value("${app.security.senha.tempo-maximo}")
+    private Duration tempoMaximo;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void inicializar() {
+        var contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila),
+                runnable -> {
+                    var thread = new Thread(runnable, "hash-senha-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("forumhub.senha.fila", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    // Timers de uma operação; quem usa o pool registra uma vez e reaproveita em cada chamada
+    public record Operacao(Timer espera, Timer hash) {
+    }
+
+    public Operacao operacao(String nome) {
+        return new Operacao(
+                Timer.builder("forumhub.senha.espera").tag("operacao", nome).register(meterRegistry),
+                Timer.builder("forumhub.senha.hash").tag("operacao", nome).register(meterRegistry));
+    }
+
+    // O PasswordEncoder é síncrono, então a thread da requisição espera o resultado; a espera é limitada
+    // por tempo-maximo para que um pool lento não prenda as threads do Tomcat indefinidamente
+    public <T> T executar(Operacao operacao, Supplier<T> tarefa) {
+        var enfileiradoEm = System.nanoTime();
+
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(() -> {
+                operacao.espera().record(System.nanoTime() - enfileiradoEm, TimeUnit.NANOSECONDS);
+                return operacao.hash().record(tarefa);
+            });
+        } catch (RejectedExecutionException e) {
+            throw new SobrecargaException("Servidor ocupado processando senhas. Tente novamente em instantes.", retryAfter);
+        }
+
+        try {
+            return futuro.get(tempoMaximo.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            throw new SobrecargaException("Servidor ocupado processando senhas. Tente novamente em instantes.", retryAfter);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Processamento de senha interrompido.", e);
+        }
+    }
+}
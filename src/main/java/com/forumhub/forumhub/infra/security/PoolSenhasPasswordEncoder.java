@@ -0,0 +1,35 @@
+package com.forumhub.forumhub.infra.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Leva só o BCrypt (encode/matches) para o ExecutorSenhas; a busca do usuário e o save do rehash
+// continuam na thread da requisição, sem ocupar o pool durante I/O
+public class PoolSenhasPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegado;
+    private final ExecutorSenhas executorSenhas;
+    private final ExecutorSenhas.Operacao codificar;
+    private final ExecutorSenhas.Operacao verificar;
+
+    public PoolSenhasPasswordEncoder(PasswordEncoder delegado, ExecutorSenhas executorSenhas) {
+        this.delegado = delegado;
+        this.executorSenhas = executorSenhas;
+        this.codificar = executorSenhas.operacao("codificar");
+        this.verificar = executorSenhas.operacao("verificar");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executorSenhas.executar(codificar, () -> delegado.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executorSenhas.executar(verificar, () -> delegado.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,264 @@
+package com.forumhub.forumhub.infra.security;
+
+import com.forumhub.forumhub.infra.exception.ValidacaoTokenException;
+import com.forumhub.forumhub.model.Usuario;
+import com.forumhub.forumhub.repository.RefreshTokenRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Sessões de refresh em memória, divididas em shards com lock próprio. A memória é a fonte principal:
+// emitir e consumir só mexem no shard e deixam a escrita na tabela refresh_tokens para o flush em lote
+// (write-behind). O banco só é lido quando o token não está em memória (depois de um restart ou
+// quando foi emitido por outra instância); nesse caso o DELETE decide quem consome o token.
+// Em caso de queda perde-se o que chegou desde o último flush: tokens recém-emitidos deixam de valer
+// e um token consumido nesse intervalo volta a valer uma vez.
+@Service
+public class RefreshTokenService {
+
+    private static final String SQL_INSERIR = "INSERT IGNORE INTO refresh_tokens (hash, usuario_id, login, expira_em) VALUES (?, ?, ?, ?)";
+    private static final String SQL_EXCLUIR = "DELETE FROM refresh_tokens WHERE hash = ?";
+
+    @Value("${app.security.refresh-token.ttl}")
+    private Duration validade;
+
+    @Value("${app.security.refresh-token.shards}")
+    private int quantidadeShards;
+
+    @Autowired
+    private RefreshTokenRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final SecureRandom random = new SecureRandom();
+    private Shard[] shards;
+
+    // Última escrita pendente de cada hash: a sessão a inserir ou EXCLUSAO
+    private final Map<String, Escrita> pendentes = new ConcurrentHashMap<>();
+    private final ReentrantLock lockGravacao = new ReentrantLock();
+
+    private record Escrita(Sessao sessao) {
+    }
+
+    private static final Escrita EXCLUSAO = new Escrita(null);
+
+    @PostConstruct
+    void inicializar() {
+        shards = new Shard[Integer.highestOneBit(Math.max(1, quantidadeShards))];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    public String emitir(Usuario usuario) {
+        var bytes = new byte[32];
+        random.nextBytes(bytes);
+        var refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        var hash = hash(refreshToken);
+
+        var sessao = new Sessao(usuario.getId(), usuario.getLogin(), Instant.now().plus(validade));
+        shard(hash).colocar(hash, sessao);
+        pendentes.put(hash, new Escrita(sessao));
+
+        return refreshToken;
+    }
+
+    // Rotação: cada refresh token vale uma vez. Em memória, quem retira a sessão do shard consome o
+    // token; fora dela, o DELETE no banco decide entre renovações (ou instâncias) simultâneas
+    public Sessao consumir(String refreshToken) {
+        var hash = hash(refreshToken);
+
+        var sessao = shard(hash).retirar(hash);
+        if (sessao != null) {
+            pendentes.put(hash, EXCLUSAO);
+        } else {
+            sessao = repository.findById(hash)
+                    .map(r -> new Sessao(r.getUsuarioId(), r.getLogin(), r.getExpiraEm().atZone(ZoneId.systemDefault()).toInstant()))
+                    .filter(s -> repository.deleteByHash(hash) > 0)
+                    .orElse(null);
+        }
+
+        if (sessao == null || sessao.expirada(Instant.now())) {
+            throw new ValidacaoTokenException("Refresh token inválido ou expirado!");
+        }
+        return sessao;
+    }
+
+    // Sempre marca exclusão, mesmo com a inserção ainda pendente: ela pode já estar no flush em andamento
+    public void revogar(String refreshToken) {
+        var hash = hash(refreshToken);
+        shard(hash).remover(hash);
+        pendentes.put(hash, EXCLUSAO);
+    }
+
+    // Com o lock do flush: nenhuma inserção pendente do usuário é gravada depois do DELETE
+    public void revogarDoUsuario(Long usuarioId) {
+        lockGravacao.lock();
+        try {
+            for (var shard : shards) {
+                shard.removerDoUsuario(usuarioId);
+            }
+            pendentes.values().removeIf(escrita -> escrita.sessao() != null && escrita.sessao().usuarioId().equals(usuarioId));
+            repository.deleteByUsuarioId(usuarioId);
+        } finally {
+            lockGravacao.unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.security.refresh-token.gravacao}", fixedDelayString = "${app.security.refresh-token.gravacao}")
+    public void gravar() {
+        lockGravacao.lock();
+        try {
+            gravarPendentes();
+        } finally {
+            lockGravacao.unlock();
+        }
+    }
+
+    @PreDestroy
+    void gravarAoEncerrar() {
+        gravar();
+    }
+
+    private void gravarPendentes() {
+        var retiradas = new HashMap<String, Escrita>();
+        pendentes.forEach((hash, escrita) -> {
+            if (pendentes.remove(hash, escrita)) {
+                retiradas.put(hash, escrita);
+            }
+        });
+        if (retiradas.isEmpty()) {
+            return;
+        }
+
+        var insercoes = new ArrayList<Object[]>();
+        var exclusoes = new ArrayList<Object[]>();
+        retiradas.forEach((hash, escrita) -> {
+            if (escrita == EXCLUSAO) {
+                exclusoes.add(new Object[]{hash});
+            } else {
+                var sessao = escrita.sessao();
+                insercoes.add(new Object[]{hash, sessao.usuarioId(), sessao.login(),
+                        LocalDateTime.ofInstant(sessao.expiraEm(), ZoneId.systemDefault())});
+            }
+        });
+
+        try {
+            // INSERT IGNORE: o usuário pode ter sido excluído depois da emissão (FK), e isso não pode travar o lote
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(SQL_INSERIR, insercoes);
+                jdbcTemplate.batchUpdate(SQL_EXCLUIR, exclusoes);
+            });
+        } catch (RuntimeException e) {
+            // Volta para a fila sem sobrescrever o que chegou depois; tenta de novo no próximo flush
+            retiradas.forEach(pendentes::putIfAbsent);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.refresh-token.limpeza}")
+    public void removerExpirados() {
+        var agora = Instant.now();
+        for (var shard : shards) {
+            shard.removerExpirados(agora);
+        }
+        repository.deleteExpirados(LocalDateTime.ofInstant(agora, ZoneId.systemDefault()));
+    }
+
+    private Shard shard(String hash) {
+        return shards[hash.hashCode() & (shards.length - 1)];
+    }
+
+    private String hash(String refreshToken) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Sessao(Long usuarioId, String login, Instant expiraEm) {
+
+        boolean expirada(Instant agora) {
+            return !expiraEm.isAfter(agora);
+        }
+    }
+
+    private static class Shard {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Sessao> sessoes = new HashMap<>();
+
+        Sessao retirar(String hash) {
+            lock.writeLock().lock();
+            try {
+                return sessoes.remove(hash);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void colocar(String hash, Sessao sessao) {
+            lock.writeLock().lock();
+            try {
+                sessoes.put(hash, sessao);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remover(String hash) {
+            lock.writeLock().lock();
+            try {
+                sessoes.remove(hash);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void removerDoUsuario(Long usuarioId) {
+            lock.writeLock().lock();
+            try {
+                sessoes.values().removeIf(s -> s.usuarioId().equals(usuarioId));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void removerExpirados(Instant agora) {
+            lock.writeLock().lock();
+            try {
+                sessoes.values().removeIf(s -> s.expirada(agora));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.forumhub.forumhub.infra.security;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.forumhub.forumhub.infra.util.BloomFilter;
+import com.forumhub.forumhub.model.TokenRevogado;
+import com.forumhub.forumhub.repository.TokenRevogadoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Lista de tokens revogados: o filtro de Bloom responde "não revogado" sem ir ao banco,
+// que só é consultado nos (raros) positivos
+@Service
+public class RevogacaoService {
+
+    @Value("${app.security.revogacao.capacidade}")
+    private long capacidade;
+
+    @Value("${app.security.revogacao.falso-positivo}")
+    private double taxaFalsoPositivo;
+
+    @Autowired
+    private TokenRevogadoRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile BloomFilter filtro;
+    private Counter consultasAoBanco;
+
+    @PostConstruct
+    void inicializar() {
+        consultasAoBanco = meterRegistry.counter("forumhub.revogacao.consultas.banco");
+        reconstruir();
+    }
+
+    public void revogar(DecodedJWT token) {
+        if (token.getId() == null || token.getExpiresAtAsInstant() == null) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            repository.save(new TokenRevogado(token.getId(),
+                    LocalDateTime.ofInstant(token.getExpiresAtAsInstant(), ZoneId.systemDefault())));
+            filtro.adicionar(token.getId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isRevogado(String jti) {
+        if (jti == null || !filtro.talvezContenha(jti)) {
+            return false;
+        }
+        consultasAoBanco.increment();
+        return repository.existsById(jti);
+    }
+
+    // Filtros de Bloom não suportam remoção: os expirados saem do banco e o filtro é refeito
+    @Scheduled(fixedDelayString = "${app.security.revogacao.limpeza}")
+    public void removerExpirados() {
+        repository.deleteExpirados(LocalDateTime.now());
+        reconstruir();
+    }
+
+    private void reconstruir() {
+        lock.lock();
+        try {
+            var jtis = repository.findJtisValidos(LocalDateTime.now());
+            var novoFiltro = new BloomFilter(Math.max(capacidade, jtis.size() * 2L), taxaFalsoPositivo);
+            jtis.forEach(novoFiltro::adicionar);
+            filtro = novoFiltro;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
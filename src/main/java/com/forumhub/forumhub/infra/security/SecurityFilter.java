@@ -1,17 +1,23 @@
 package com.forumhub.forumhub.infra.security;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.forumhub.forumhub.model.Usuario;
 import com.forumhub.forumhub.repository.UsuarioRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
@@ -22,6 +28,15 @@ public class SecurityFilter extends OncePerRequestFilter {
     @Autowired
     private UsuarioRepository repository;
 
+    @Autowired
+    private CachePrincipal cachePrincipal;
+
+    @Autowired
+    private RevogacaoService revogacaoService;
+
+    @Value("${app.security.principal.stateless}")
+    private boolean principalStateless;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -30,13 +45,17 @@ public class SecurityFilter extends OncePerRequestFilter {
 
         if (tokenJWT != null) {
             try {
-                var subject = tokenService.getSubject(tokenJWT);
-                var usuario = repository.findByLogin(subject)
-                        .orElse(null);
+                var token = tokenService.verificar(tokenJWT);
+                if (revogacaoService.isRevogado(token.getId())) {
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
-                if (usuario != null) {
-                    var authentication = new UsernamePasswordAuthenticationToken(
-                            usuario, null, usuario.getAuthorities());
+                var authentication = principalStateless && possuiClaims(token)
+                        ? autenticacaoPelosClaims(token)
+                        : autenticacaoPeloBanco(token.getSubject());
+
+                if (authentication != null) {
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             } catch (Exception e) {
@@ -46,6 +65,29 @@ public class SecurityFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private boolean possuiClaims(DecodedJWT token) {
+        return !token.getClaim(TokenService.CLAIM_ID).isMissing() && !token.getClaim(TokenService.CLAIM_ROLES).isMissing();
+    }
+
+    // Principal leve montado só com os claims; quem precisar da entidade completa carrega pelo id
+    private UsernamePasswordAuthenticationToken autenticacaoPelosClaims(DecodedJWT token) {
+        var usuario = new Usuario(token.getClaim(TokenService.CLAIM_ID).asLong(), token.getSubject(), null);
+        Collection<GrantedAuthority> autoridades = token.getClaim(TokenService.CLAIM_ROLES).asList(String.class).stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                .toList();
+        return new UsernamePasswordAuthenticationToken(usuario, null, autoridades);
+    }
+
+    private UsernamePasswordAuthenticationToken autenticacaoPeloBanco(String subject) {
+        var usuario = cachePrincipal.buscar(subject, repository::findByLogin)
+                .orElse(null);
+
+        if (usuario == null) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+    }
+
     private String recuperarToken(HttpServletRequest request) {
         var authorizationHeader = request.getHeader("Authorization");
         if (authorizationHeader != null) {
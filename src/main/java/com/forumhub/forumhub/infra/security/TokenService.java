@@ -3,28 +3,76 @@ package com.forumhub.forumhub.infra.security;
 import com.forumhub.forumhub.infra.exception.ValidacaoTokenException;
 import com.forumhub.forumhub.model.Usuario;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.UUID;
 
 @Service
 public class TokenService {
 
+    static final String CLAIM_ID = "id";
+    static final String CLAIM_ROLES = "roles";
+    private static final String EMISSOR = "API ForumHub";
+
     @Value("${app.security.token.secret}")
     private String secret;
 
+    @Value("${app.security.token.access-ttl}")
+    private Duration validadeAcesso;
+
+    @Value("${app.security.token.cache.max-size}")
+    private long tamanhoCacheVerificados;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Algorithm algoritmo;
+    private JWTVerifier verificador;
+    private Cache<String, DecodedJWT> tokensVerificados;
+
+    @PostConstruct
+    void inicializar() {
+        algoritmo = Algorithm.HMAC256(secret);
+        verificador = JWT.require(algoritmo)
+                .withIssuer(EMISSOR)
+                .acceptExpiresAt(0)
+                .build();
+        tokensVerificados = Caffeine.newBuilder()
+                .maximumSize(tamanhoCacheVerificados)
+                .expireAfter(new ExpiracaoDoToken())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokensVerificados, "tokensVerificados");
+    }
+
     public String gerarToken(Usuario usuario) {
         try {
-            var algoritmo = Algorithm.HMAC256(secret);
             return JWT.create()
-                    .withIssuer("API ForumHub")
+                    .withIssuer(EMISSOR)
                     .withSubject(usuario.getLogin())
+                    .withJWTId(UUID.randomUUID().toString())
+                    .withClaim(CLAIM_ID, usuario.getId())
+                    .withClaim(CLAIM_ROLES, usuario.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
                     .withExpiresAt(dataExpiracao())
                     .sign(algoritmo);
         } catch (JWTCreationException exception) {
@@ -33,20 +81,61 @@ public class TokenService {
     }
 
     public String getSubject(String tokenJWT) {
+        return verificar(tokenJWT).getSubject();
+    }
+
+    public DecodedJWT verificar(String tokenJWT) {
+        var digest = digest(tokenJWT);
+        var verificado = tokensVerificados.getIfPresent(digest);
+        if (verificado != null && verificado.getExpiresAtAsInstant().isAfter(Instant.now())) {
+            return verificado;
+        }
+
+        verificado = verificarAssinatura(tokenJWT);
+        if (verificado.getExpiresAtAsInstant() != null) {
+            tokensVerificados.put(digest, verificado);
+        }
+        return verificado;
+    }
+
+    DecodedJWT verificarAssinatura(String tokenJWT) {
         try {
-            var algoritmo = Algorithm.HMAC256(secret);
-            return JWT.require(algoritmo)
-                    .withIssuer("API ForumHub")
-                    .acceptExpiresAt(0)
-                    .build()
-                    .verify(tokenJWT)
-                    .getSubject();
+            return verificador.verify(tokenJWT);
         } catch (JWTVerificationException exception) {
             throw new ValidacaoTokenException("Token JWT inválido ou expirado!");
         }
     }
 
+    private String digest(String tokenJWT) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(tokenJWT.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private Instant dataExpiracao() {
-        return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
+        return Instant.now().plus(validadeAcesso);
+    }
+
+    // Cada entrada vive só até o exp do próprio token
+    private static class ExpiracaoDoToken implements Expiry<String, DecodedJWT> {
+
+        @Override
+        public long expireAfterCreate(String chave, DecodedJWT token, long agora) {
+            var restante = token.getExpiresAtAsInstant().toEpochMilli() - System.currentTimeMillis();
+            return Math.max(0, restante) * 1_000_000;
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, DecodedJWT token, long agora, long duracaoAtual) {
+            return expireAfterCreate(chave, token, agora);
+        }
+
+        @Override
+        public long expireAfterRead(String chave, DecodedJWT token, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
     }
 }
@@ -0,0 +1,18 @@
+package com.forumhub.forumhub.infra.security;
+
+import com.forumhub.forumhub.model.Usuario;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class UsuarioCacheListener {
+
+    @Autowired
+    private CachePrincipal cachePrincipal;
+
+    @PostUpdate
+    @PostRemove
+    public void removerDoCache(Usuario usuario) {
+        cachePrincipal.remover(usuario);
+    }
+}
@@ -0,0 +1,127 @@
+package com.forumhub.forumhub.infra.topico;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Visualizações de tópicos acumuladas em memória e gravadas em lote (write-behind): o GET do
+// detalhe só incrementa um LongAdder (células por thread, sem disputa numa linha do banco) e o
+// flush periódico manda "visualizacoes = visualizacoes + delta" por tópico. Em caso de queda,
+// perde-se no máximo o que chegou desde o último flush.
+@Component
+public class ContadorVisualizacoes {
+
+    private static final String SQL_SOMAR = "UPDATE topicos SET visualizacoes = visualizacoes + ? WHERE id = ?";
+
+    @Value("${app.topicos.visualizacoes.lote}")
+    private int tamanhoLote;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TendenciasTopicos tendencias;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, LongAdder> pendentes = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private Counter visualizacoesGravadas;
+
+    @PostConstruct
+    void inicializar() {
+        visualizacoesGravadas = meterRegistry.counter("forumhub.topicos.visualizacoes.gravadas");
+        Gauge.builder("forumhub.topicos.visualizacoes.topicos-pendentes", pendentes, Map::size)
+                .register(meterRegistry);
+    }
+
+    public void registrar(Long idTopico) {
+        somar(idTopico, 1);
+    }
+
+    // Soma dentro do compute: o flush só tira um acumulador do mapa com remove(id, acumulador), que
+    // disputa o mesmo lock do bin, então nenhum incremento cai num acumulador que já saiu do mapa.
+    // O lambda não bloqueia, então o lock do bin não segura thread virtual esperando I/O.
+    private void somar(Long idTopico, long delta) {
+        pendentes.compute(idTopico, (id, acumulador) -> {
+            var atual = acumulador != null ? acumulador : new LongAdder();
+            atual.add(delta);
+            return atual;
+        });
+    }
+
+    @Scheduled(initialDelayString = "${app.topicos.visualizacoes.flush}", fixedDelayString = "${app.topicos.visualizacoes.flush}")
+    public void gravar() {
+        // ReentrantLock e não synchronized: o flush faz I/O e pode rodar numa thread virtual
+        lock.lock();
+        try {
+            gravarPendentes();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Separado do agendado: o último flush espera pelo lock um flush agendado que ainda esteja rodando
+    @PreDestroy
+    void gravarAoEncerrar() {
+        gravar();
+    }
+
+    private void gravarPendentes() {
+        // sumThenReset zera cada célula com getAndSet: incrementos concorrentes ficam para o próximo flush
+        var deltas = new ArrayList<Object[]>();
+        pendentes.forEach((id, acumulador) -> {
+            var delta = acumulador.sumThenReset();
+            if (delta > 0) {
+                deltas.add(new Object[]{delta, id});
+            } else if (pendentes.remove(id, acumulador)) {
+                // Tópico sem visualizações no intervalo sai do mapa; o que entrou entre a leitura e a remoção vai junto
+                var restante = acumulador.sumThenReset();
+                if (restante > 0) {
+                    deltas.add(new Object[]{restante, id});
+                }
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Ordem de id fixa entre instâncias, para os lotes não se travarem em ordens diferentes
+        deltas.sort((a, b) -> Long.compare((Long) a[1], (Long) b[1]));
+        for (int inicio = 0; inicio < deltas.size(); inicio += tamanhoLote) {
+            var lote = deltas.subList(inicio, Math.min(inicio + tamanhoLote, deltas.size()));
+            try {
+                // Um lote por transação: ou entra inteiro ou volta inteiro para os acumuladores
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(SQL_SOMAR, lote));
+            } catch (RuntimeException e) {
+                // Devolve este lote e os seguintes aos acumuladores; tenta de novo no próximo flush
+                var naoGravados = deltas.subList(inicio, deltas.size());
+                naoGravados.forEach(delta -> somar((Long) delta[1], (Long) delta[0]));
+                throw e;
+            }
+            visualizacoesGravadas.increment(lote.stream().mapToLong(delta -> (Long) delta[0]).sum());
+        }
+
+        // Fora do try e só depois de todos os lotes: uma falha aqui não devolve aos acumuladores
+        // visualizações que já estão no banco (seriam somadas de novo no próximo flush)
+        deltas.forEach(delta -> tendencias.registrarVisualizacoes((Long) delta[1], (Long) delta[0]));
+    }
+}
@@ -0,0 +1,76 @@
+package com.forumhub.forumhub.infra.topico;
+
+import com.forumhub.forumhub.infra.util.BloomFilter;
+import com.forumhub.forumhub.repository.TopicoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Filtro de Bloom com o hash de conteúdo de todos os tópicos: um "não" dispensa a consulta
+// de duplicidade no banco. Enquanto o filtro está sendo (re)carregado, tudo cai no banco.
+// Tópicos gravados por outras instâncias só entram na próxima reconstrução agendada.
+@Component
+public class FiltroDuplicidadeTopico {
+
+    @Value("${app.topicos.duplicidade.capacidade}")
+    private long capacidade;
+
+    @Value("${app.topicos.duplicidade.falso-positivo}")
+    private double taxaFalsoPositivo;
+
+    @Autowired
+    private TopicoRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile BloomFilter filtro;
+    private volatile boolean carregado;
+    private Counter consultasEvitadas;
+
+    @PostConstruct
+    void inicializar() {
+        consultasEvitadas = meterRegistry.counter("forumhub.topicos.duplicidade.consultas.evitadas");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.topicos.duplicidade.reconstrucao}", fixedDelayString = "${app.topicos.duplicidade.reconstrucao}")
+    public void reconstruir() {
+        var total = repository.count();
+        var novoFiltro = new BloomFilter(Math.max(capacidade, total * 2), taxaFalsoPositivo);
+
+        carregado = false;
+        filtro = novoFiltro;
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var hashes = repository.streamHashesConteudo()) {
+                hashes.forEach(novoFiltro::adicionar);
+            }
+        });
+        carregado = true;
+    }
+
+    public boolean talvezExista(String hashConteudo) {
+        if (!carregado || filtro.talvezContenha(hashConteudo)) {
+            return true;
+        }
+        consultasEvitadas.increment();
+        return false;
+    }
+
+    public void registrar(String hashConteudo) {
+        var atual = filtro;
+        if (atual != null && hashConteudo != null) {
+            atual.adicionar(hashConteudo);
+        }
+    }
+}
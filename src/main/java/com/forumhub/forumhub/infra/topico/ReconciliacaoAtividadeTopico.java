@@ -0,0 +1,104 @@
+package com.forumhub.forumhub.infra.topico;
+
+import com.forumhub.forumhub.infra.cache.CacheDetalhamentoTopico;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Corrige divergências entre os contadores e o status de topicos e a tabela respostas (escritas fora
+// do RespostaController, falhas parciais). Percorre os ids em faixas, um UPDATE por faixa, e só
+// reescreve as linhas que estão diferentes. Cada faixa trava antes as suas linhas de topicos
+// (SELECT ... FOR UPDATE), na mesma ordem das escritas de resposta (tópico e depois respostas):
+// um registrarResposta/removerResposta em andamento termina antes da contagem, e os que vierem
+// depois esperam o UPDATE, então a contagem nunca sobrescreve um incremento mais novo.
+@Component
+public class ReconciliacaoAtividadeTopico {
+
+    private static final String SQL_TRAVAR = "SELECT id FROM topicos WHERE id >= ? AND id < ? ORDER BY id FOR UPDATE";
+
+    private static final String SQL_RECONCILIAR = """
+            UPDATE topicos t
+            LEFT JOIN (
+                SELECT topico_id,
+                       COUNT(*) AS total,
+                       MAX(data_criacao) AS ultima,
+                       MIN(CASE WHEN solucao THEN id END) AS solucao
+                FROM respostas
+                WHERE topico_id >= ? AND topico_id < ?
+                GROUP BY topico_id
+            ) r ON r.topico_id = t.id
+            SET t.status = CASE
+                    WHEN t.status = 'FECHADO' THEN t.status
+                    WHEN r.solucao IS NOT NULL THEN 'SOLUCIONADO'
+                    WHEN t.status = 'NAO_RESPONDIDO' AND r.total > 0 THEN 'NAO_SOLUCIONADO'
+                    WHEN t.status = 'NAO_SOLUCIONADO' AND r.total IS NULL THEN 'NAO_RESPONDIDO'
+                    WHEN t.status = 'SOLUCIONADO' AND r.solucao IS NULL AND r.total > 0 THEN 'NAO_SOLUCIONADO'
+                    WHEN t.status = 'SOLUCIONADO' AND r.solucao IS NULL THEN 'NAO_RESPONDIDO'
+                    ELSE t.status END,
+                t.total_respostas = COALESCE(r.total, 0),
+                t.data_ultima_atividade = GREATEST(t.data_criacao, COALESCE(r.ultima, t.data_criacao)),
+                t.id_solucao = r.solucao,
+                t.versao = t.versao + 1
+            WHERE t.id >= ? AND t.id < ?
+              AND (t.total_respostas <> COALESCE(r.total, 0)
+                OR t.data_ultima_atividade <> GREATEST(t.data_criacao, COALESCE(r.ultima, t.data_criacao))
+                OR NOT (t.id_solucao <=> r.solucao)
+                OR (t.status = 'SOLUCIONADO' AND r.solucao IS NULL)
+                OR (t.status IN ('NAO_RESPONDIDO', 'NAO_SOLUCIONADO') AND r.solucao IS NOT NULL))
+            """;
+
+    @Value("${app.topicos.atividade.lote}")
+    private int tamanhoLote;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheDetalhamentoTopico cacheDetalhamento;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter topicosCorrigidos;
+
+    @PostConstruct
+    void inicializar() {
+        topicosCorrigidos = meterRegistry.counter("forumhub.topicos.atividade.corrigidos");
+    }
+
+    @Scheduled(initialDelayString = "${app.topicos.atividade.reconciliacao}", fixedDelayString = "${app.topicos.atividade.reconciliacao}")
+    public int reconciliar() {
+        var maiorId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM topicos", Long.class);
+        var corrigidos = reconciliarFaixa(1, maiorId + 1);
+
+        if (corrigidos > 0) {
+            topicosCorrigidos.increment(corrigidos);
+            cacheDetalhamento.removerTodos();
+        }
+        return corrigidos;
+    }
+
+    // Ids em [inicio, fim); também usado pela importação para calcular os contadores dos tópicos
+    // recém-gravados (aí cada faixa entra na transação do lote). Não limpa o cache nem conta como correção.
+    public int reconciliarFaixa(long inicio, long fim) {
+        var atualizados = 0;
+        for (long atual = inicio; atual < fim; atual += tamanhoLote) {
+            var faixaInicio = atual;
+            var faixaFim = Math.min(atual + tamanhoLote, fim);
+            atualizados += transactionTemplate.execute(status -> {
+                jdbcTemplate.queryForList(SQL_TRAVAR, Long.class, faixaInicio, faixaFim);
+                return jdbcTemplate.update(SQL_RECONCILIAR, faixaInicio, faixaFim, faixaInicio, faixaFim);
+            });
+        }
+        return atualizados;
+    }
+}
@@ -0,0 +1,301 @@
+package com.forumhub.forumhub.infra.topico;
+
+import com.forumhub.forumhub.dto.topico.DadosTendenciaTopico;
+import com.forumhub.forumhub.infra.evento.EventoResposta;
+import com.forumhub.forumhub.infra.evento.EventoTopico;
+import com.forumhub.forumhub.infra.util.ItensFrequentes;
+import com.forumhub.forumhub.repository.RespostaRepository;
+import com.forumhub.forumhub.repository.TopicoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Tópicos em alta, no geral e por curso. Respostas, visualizações e criações somam pesos em baldes
+// de tempo ("app.tendencias.balde"), cada um com um Space-Saving de capacidade fixa; baldes mais
+// velhos que a janela saem e os restantes valem menos conforme a meia-vida. O ranking é recalculado
+// a cada "app.tendencias.atualizacao" e a consulta só lê o resultado pronto. Título e curso ficam num
+// resumo por tópico, preenchido pelos eventos de tópico; os que faltam são carregados de uma vez, numa
+// consulta por atualização, em vez de uma ida ao banco (ou ao cache do detalhe) por evento.
+@Component
+public class TendenciasTopicos {
+
+    private static final String GLOBAL = "";
+
+    @Value("${app.tendencias.balde}")
+    private Duration duracaoBalde;
+
+    @Value("${app.tendencias.janela}")
+    private Duration janela;
+
+    @Value("${app.tendencias.meia-vida}")
+    private Duration meiaVida;
+
+    @Value("${app.tendencias.capacidade}")
+    private int capacidade;
+
+    @Value("${app.tendencias.max-resultados}")
+    private int maxResultados;
+
+    @Value("${app.tendencias.peso.resposta}")
+    private long pesoResposta;
+
+    @Value("${app.tendencias.peso.visualizacao}")
+    private long pesoVisualizacao;
+
+    @Value("${app.tendencias.peso.criacao}")
+    private long pesoCriacao;
+
+    @Autowired
+    private RespostaRepository respostaRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Chave GLOBAL para o ranking geral, nome do curso para os demais. O curso vem do usuário, então a
+    // janela de um curso sem atividade no período sai do mapa a cada atualização. Inclusão e remoção
+    // passam pelo compute da chave, para nenhum evento cair numa janela que acabou de sair.
+    private final Map<String, Janela> janelas = new ConcurrentHashMap<>();
+    private volatile Map<String, List<DadosTendenciaTopico>> ranking = Map.of();
+
+    // Título nulo: só o curso é conhecido (reconstrução pelas respostas). AUSENTE: excluído ou inexistente.
+    private final Map<Long, Resumo> resumos = new ConcurrentHashMap<>();
+    // Atividade de tópico sem resumo: já contou no ranking geral, entra no do curso quando ele for carregado
+    private final Queue<Pendente> semCurso = new ConcurrentLinkedQueue<>();
+
+    private record Resumo(String titulo, String curso) {
+    }
+
+    private static final Resumo AUSENTE = new Resumo(null, null);
+
+    private record Pendente(long idTopico, long indice, long peso) {
+    }
+
+    // Baldes indexados por (segundos desde a época / duração do balde)
+    private final class Janela {
+        final ReentrantLock lock = new ReentrantLock();
+        final TreeMap<Long, ItensFrequentes> baldes = new TreeMap<>();
+
+        void adicionar(long indice, long idTopico, long peso) {
+            lock.lock();
+            try {
+                var minimo = indiceAtual() - quantidadeBaldes() + 1;
+                if (indice < minimo) {
+                    return;
+                }
+                baldes.headMap(minimo).clear();
+                baldes.computeIfAbsent(indice, chave -> new ItensFrequentes(capacidade)).adicionar(idTopico, peso);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean vazia() {
+            lock.lock();
+            try {
+                baldes.headMap(indiceAtual() - quantidadeBaldes() + 1).clear();
+                return baldes.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remover(long idTopico) {
+            lock.lock();
+            try {
+                baldes.values().forEach(itens -> itens.remover(idTopico));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Map<Long, Double> pontuar(long indiceAtual) {
+            var pontuacoes = new HashMap<Long, Double>();
+            lock.lock();
+            try {
+                baldes.headMap(indiceAtual - quantidadeBaldes() + 1).clear();
+                baldes.forEach((indice, itens) -> {
+                    var idade = (double) (indiceAtual - indice) * duracaoBalde.toSeconds();
+                    var fator = Math.pow(0.5, idade / meiaVida.toSeconds());
+                    itens.paraCada((id, contagem) -> pontuacoes.merge(id, contagem * fator, Double::sum));
+                });
+            } finally {
+                lock.unlock();
+            }
+            return pontuacoes;
+        }
+    }
+
+    // Reconstrói a partir das respostas da janela; visualizações não têm histórico no banco
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        var desde = LocalDateTime.now().minus(janela);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var atividades = respostaRepository.streamAtividadeDesde(desde)) {
+                atividades.forEach(atividade -> {
+                    resumos.putIfAbsent(atividade.idTopico(), new Resumo(null, atividade.curso()));
+                    registrar(atividade.idTopico(), atividade.curso(), indice(atividade.data()), pesoResposta);
+                });
+            }
+        });
+        atualizar();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarTopico(EventoTopico evento) {
+        var topico = evento.topico();
+        if (evento.tipo() == EventoTopico.Tipo.CRIADO) {
+            resumos.put(topico.id(), new Resumo(topico.titulo(), topico.curso()));
+            registrar(topico.id(), topico.curso(), indice(LocalDateTime.now()), pesoCriacao);
+        } else if (evento.tipo() == EventoTopico.Tipo.ATUALIZADO) {
+            resumos.computeIfPresent(topico.id(), (id, resumo) -> new Resumo(topico.titulo(), topico.curso()));
+        } else if (evento.tipo() == EventoTopico.Tipo.EXCLUIDO) {
+            janelas.values().forEach(janela -> janela.remover(topico.id()));
+            resumos.remove(topico.id());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarResposta(EventoResposta evento) {
+        if (evento.tipo() == EventoResposta.Tipo.CRIADA) {
+            registrarAtividade(evento.idTopico(), evento.resposta().dataCriacao(), pesoResposta);
+        }
+    }
+
+    // Chamado pelo ContadorVisualizacoes a cada flush, com o total do intervalo
+    public void registrarVisualizacoes(Long idTopico, long quantidade) {
+        registrarAtividade(idTopico, LocalDateTime.now(), pesoVisualizacao * quantidade);
+    }
+
+    public List<DadosTendenciaTopico> buscar(String curso, int limite) {
+        var chave = curso == null || curso.isBlank() ? GLOBAL : curso;
+        var topicos = ranking.getOrDefault(chave, List.of());
+        return topicos.subList(0, Math.min(Math.max(limite, 0), topicos.size()));
+    }
+
+    @Scheduled(initialDelayString = "${app.tendencias.atualizacao}", fixedDelayString = "${app.tendencias.atualizacao}")
+    public void atualizar() {
+        var indiceAtual = indiceAtual();
+        var pendentes = new ArrayList<Pendente>();
+        for (Pendente pendente; (pendente = semCurso.poll()) != null; ) {
+            pendentes.add(pendente);
+        }
+
+        // O ranking geral tem todos os tópicos de todas as janelas: uma consulta cobre os resumos que faltam
+        var global = janelas.computeIfAbsent(GLOBAL, chave -> new Janela()).pontuar(indiceAtual);
+        var faltando = new HashSet<Long>();
+        pendentes.forEach(pendente -> faltando.add(pendente.idTopico()));
+        faltando.addAll(global.keySet());
+        faltando.removeIf(id -> {
+            var resumo = resumos.get(id);
+            return resumo != null && (resumo == AUSENTE || resumo.titulo() != null);
+        });
+        carregarResumos(faltando);
+
+        for (var pendente : pendentes) {
+            var resumo = resumos.get(pendente.idTopico());
+            if (resumo != null && resumo.curso() != null) {
+                adicionar(resumo.curso(), pendente.indice(), pendente.idTopico(), pendente.peso());
+            }
+        }
+
+        var novoRanking = new HashMap<String, List<DadosTendenciaTopico>>();
+        janelas.forEach((chave, janela) -> {
+            var topicos = classificar(chave.equals(GLOBAL) ? global : janela.pontuar(indiceAtual));
+            if (!topicos.isEmpty()) {
+                novoRanking.put(chave, topicos);
+            }
+        });
+        ranking = novoRanking;
+
+        janelas.keySet().forEach(chave -> janelas.computeIfPresent(chave, (id, janela) -> janela.vazia() ? null : janela));
+
+        // Tópico que saiu de todas as janelas não precisa mais do resumo
+        resumos.keySet().removeIf(id -> !global.containsKey(id));
+    }
+
+    private void carregarResumos(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        topicoRepository.findConteudoAtivosByIdIn(ids).forEach(topico ->
+                resumos.put(topico.id(), new Resumo(topico.titulo(), topico.curso())));
+        ids.forEach(id -> resumos.putIfAbsent(id, AUSENTE));
+    }
+
+    private List<DadosTendenciaTopico> classificar(Map<Long, Double> pontuacoes) {
+        var candidatos = new ArrayList<>(pontuacoes.entrySet());
+        candidatos.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.<Long, Double>comparingByKey()));
+
+        // Os detalhes vêm dos resumos; tópicos excluídos, inexistentes ou ainda sem título ficam de fora
+        var topicos = new ArrayList<DadosTendenciaTopico>(maxResultados);
+        for (var candidato : candidatos) {
+            if (topicos.size() == maxResultados) {
+                break;
+            }
+            var resumo = resumos.get(candidato.getKey());
+            if (resumo != null && resumo.titulo() != null) {
+                topicos.add(new DadosTendenciaTopico(candidato.getKey(), resumo.titulo(), resumo.curso(), candidato.getValue()));
+            }
+        }
+        return List.copyOf(topicos);
+    }
+
+    // Sem resumo, o curso fica para a próxima atualização: nada de consulta no caminho do evento
+    private void registrarAtividade(Long idTopico, LocalDateTime data, long peso) {
+        var resumo = resumos.get(idTopico);
+        if (resumo == AUSENTE) {
+            return;
+        }
+        var indice = indice(data);
+        if (resumo != null) {
+            registrar(idTopico, resumo.curso(), indice, peso);
+        } else {
+            registrar(idTopico, null, indice, peso);
+            semCurso.add(new Pendente(idTopico, indice, peso));
+        }
+    }
+
+    private void registrar(Long idTopico, String curso, long indice, long peso) {
+        adicionar(GLOBAL, indice, idTopico, peso);
+        if (curso != null) {
+            adicionar(curso, indice, idTopico, peso);
+        }
+    }
+
+    // O lambda só mexe em memória: segurar o lock do bin aqui não bloqueia ninguém esperando I/O
+    private void adicionar(String chave, long indice, long idTopico, long peso) {
+        janelas.compute(chave, (id, janela) -> {
+            var atual = janela != null ? janela : new Janela();
+            atual.adicionar(indice, idTopico, peso);
+            return atual;
+        });
+    }
+
+    private long indice(LocalDateTime data) {
+        return data.toEpochSecond(ZoneOffset.UTC) / duracaoBalde.toSeconds();
+    }
+
+    private long indiceAtual() {
+        return indice(LocalDateTime.now());
+    }
+
+    private long quantidadeBaldes() {
+        return Math.max(1, janela.toSeconds() / duracaoBalde.toSeconds());
+    }
+}
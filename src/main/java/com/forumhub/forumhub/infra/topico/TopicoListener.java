@@ -0,0 +1,40 @@
+package com.forumhub.forumhub.infra.topico;
+
+import com.forumhub.forumhub.dto.topico.DadosConteudoTopico;
+import com.forumhub.forumhub.infra.evento.EventoTopico;
+import com.forumhub.forumhub.model.Topico;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+
+public class TopicoListener {
+
+    // @Lazy: o listener é criado junto com o EntityManagerFactory, antes dos repositórios
+    @Autowired
+    @Lazy
+    private FiltroDuplicidadeTopico filtroDuplicidade;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void aoCriar(Topico topico) {
+        filtroDuplicidade.registrar(topico.getHashConteudo());
+        eventPublisher.publishEvent(new EventoTopico(EventoTopico.Tipo.CRIADO, new DadosConteudoTopico(topico)));
+    }
+
+    @PostUpdate
+    public void aoAtualizar(Topico topico) {
+        filtroDuplicidade.registrar(topico.getHashConteudo());
+        var tipo = topico.isAtivo() ? EventoTopico.Tipo.ATUALIZADO : EventoTopico.Tipo.EXCLUIDO;
+        eventPublisher.publishEvent(new EventoTopico(tipo, new DadosConteudoTopico(topico)));
+    }
+
+    @PostRemove
+    public void aoRemover(Topico topico) {
+        eventPublisher.publishEvent(new EventoTopico(EventoTopico.Tipo.EXCLUIDO, new DadosConteudoTopico(topico)));
+    }
+}
@@ -0,0 +1,249 @@
+package com.forumhub.forumhub.infra.util;
+
+import java.util.*;
+
+// Árvore de prefixos compactada (radix tree): cada aresta guarda um trecho da chave e cada nó
+// mantém as k chaves de maior contagem da sua subárvore, então uma consulta só desce o prefixo.
+// Nós, chaves e memória estimada são contadores mantidos a cada alteração, então consultar as
+// estatísticas não percorre a árvore. Não é thread-safe: quem usa controla o acesso.
+public class ArvorePrefixos {
+
+    private static final No[] SEM_FILHOS = new No[0];
+    private static final Sugestao[] SEM_SUGESTOES = new Sugestao[0];
+
+    private final int k;
+    private final No raiz = new No(new char[0]);
+    private int quantidadeNos = 1;
+    private int quantidadeChaves;
+    private long bytesEstimados;
+
+    public record Sugestao(String texto, int contagem) {
+    }
+
+    public record Estatisticas(int nos, int chaves, long bytesEstimados) {
+    }
+
+    private static final class No {
+        char[] rotulo;
+        No[] filhos = SEM_FILHOS;
+        String texto;
+        int contagem;
+        Sugestao[] melhores = SEM_SUGESTOES;
+        int bytes;
+
+        No(char[] rotulo) {
+            this.rotulo = rotulo;
+        }
+    }
+
+    private static final Comparator<Sugestao> ORDEM = Comparator.comparingInt(Sugestao::contagem).reversed()
+            .thenComparing(Sugestao::texto);
+
+    public ArvorePrefixos(int k) {
+        this.k = k;
+        atualizarBytes(raiz);
+    }
+
+    // Soma "delta" à contagem da chave; com contagem zero a chave sai da árvore
+    public void alterar(String chave, String texto, int delta) {
+        var caminho = new ArrayList<No>();
+        var no = raiz;
+        caminho.add(no);
+        var posicao = 0;
+
+        while (posicao < chave.length()) {
+            var indice = indiceFilho(no, chave.charAt(posicao));
+            if (indice < 0) {
+                if (delta <= 0) {
+                    return;
+                }
+                var folha = new No(chave.substring(posicao).toCharArray());
+                adicionarFilho(no, folha);
+                quantidadeNos++;
+                no = folha;
+                caminho.add(no);
+                break;
+            }
+
+            var filho = no.filhos[indice];
+            var comum = prefixoComum(filho.rotulo, chave, posicao);
+            if (comum < filho.rotulo.length) {
+                if (delta <= 0) {
+                    return;
+                }
+                var meio = new No(Arrays.copyOf(filho.rotulo, comum));
+                filho.rotulo = Arrays.copyOfRange(filho.rotulo, comum, filho.rotulo.length);
+                meio.filhos = new No[]{filho};
+                meio.melhores = filho.melhores;
+                no.filhos[indice] = meio;
+                quantidadeNos++;
+                atualizarBytes(filho);
+                filho = meio;
+            }
+            no = filho;
+            posicao += comum;
+            caminho.add(no);
+        }
+
+        if (no.texto == null && delta <= 0) {
+            return;
+        }
+        if (no.texto == null) {
+            quantidadeChaves++;
+            no.texto = texto;
+        }
+        no.contagem += delta;
+        if (no.contagem <= 0) {
+            quantidadeChaves--;
+            no.contagem = 0;
+            no.texto = null;
+            podar(caminho);
+        }
+
+        // De baixo para cima: um nó de passagem só é contado depois do filho cujo array compartilha
+        for (int i = caminho.size() - 1; i >= 0; i--) {
+            recalcularMelhores(caminho.get(i));
+            atualizarBytes(caminho.get(i));
+        }
+    }
+
+    public List<Sugestao> buscar(String prefixo, int limite) {
+        var no = raiz;
+        var posicao = 0;
+
+        while (posicao < prefixo.length()) {
+            var indice = indiceFilho(no, prefixo.charAt(posicao));
+            if (indice < 0) {
+                return List.of();
+            }
+            no = no.filhos[indice];
+            var comum = prefixoComum(no.rotulo, prefixo, posicao);
+            if (posicao + comum == prefixo.length()) {
+                break;
+            }
+            if (comum < no.rotulo.length) {
+                return List.of();
+            }
+            posicao += comum;
+        }
+
+        var melhores = no.melhores;
+        return List.of(melhores).subList(0, Math.min(limite, melhores.length));
+    }
+
+    public Estatisticas estatisticas() {
+        return new Estatisticas(quantidadeNos, quantidadeChaves, bytesEstimados);
+    }
+
+    // Nós removidos saem também do caminho para não voltarem à contagem
+    private void podar(List<No> caminho) {
+        for (int i = caminho.size() - 1; i >= 1; i--) {
+            var no = caminho.get(i);
+            if (no.texto != null) {
+                return;
+            }
+            if (no.filhos.length == 0) {
+                removerFilho(caminho.get(i - 1), no);
+                caminho.remove(i);
+                bytesEstimados -= no.bytes;
+                quantidadeNos--;
+            } else if (no.filhos.length == 1) {
+                var filho = no.filhos[0];
+                var rotulo = Arrays.copyOf(no.rotulo, no.rotulo.length + filho.rotulo.length);
+                System.arraycopy(filho.rotulo, 0, rotulo, no.rotulo.length, filho.rotulo.length);
+                no.rotulo = rotulo;
+                no.filhos = filho.filhos;
+                no.texto = filho.texto;
+                no.contagem = filho.contagem;
+                no.melhores = filho.melhores;
+                bytesEstimados -= filho.bytes;
+                quantidadeNos--;
+                return;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void recalcularMelhores(No no) {
+        if (no.texto == null && no.filhos.length == 1) {
+            no.melhores = no.filhos[0].melhores;
+            return;
+        }
+
+        var candidatos = new ArrayList<Sugestao>();
+        if (no.texto != null) {
+            candidatos.add(new Sugestao(no.texto, no.contagem));
+        }
+        for (var filho : no.filhos) {
+            candidatos.addAll(Arrays.asList(filho.melhores));
+        }
+        candidatos.sort(ORDEM);
+        no.melhores = candidatos.subList(0, Math.min(k, candidatos.size())).toArray(SEM_SUGESTOES);
+    }
+
+    // Estimativa para JVM 64 bits com compressed oops (cabeçalho de 12 bytes, alinhamento de 8)
+    private void atualizarBytes(No no) {
+        var bytes = alinhar(12 + 4 * 4 + 4 + 4);
+        bytes += alinhar(16 + 2L * no.rotulo.length);
+        bytes += no.filhos.length > 0 ? alinhar(16 + 4L * no.filhos.length) : 0;
+        bytes += no.melhores.length > 0 && no.melhores != primeiroFilhoMelhores(no) ? alinhar(16 + 4L * no.melhores.length) : 0;
+        if (no.texto != null) {
+            bytes += alinhar(12 + 4 + 4) + alinhar(24) + alinhar(16 + no.texto.length());
+        }
+        bytesEstimados += bytes - no.bytes;
+        no.bytes = (int) bytes;
+    }
+
+    // Nós de passagem reaproveitam o array do único filho
+    private static Sugestao[] primeiroFilhoMelhores(No no) {
+        return no.filhos.length == 1 ? no.filhos[0].melhores : null;
+    }
+
+    private static int indiceFilho(No no, char c) {
+        int inicio = 0;
+        int fim = no.filhos.length - 1;
+        while (inicio <= fim) {
+            int meio = (inicio + fim) >>> 1;
+            char atual = no.filhos[meio].rotulo[0];
+            if (atual < c) {
+                inicio = meio + 1;
+            } else if (atual > c) {
+                fim = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -(inicio + 1);
+    }
+
+    private static void adicionarFilho(No no, No filho) {
+        var posicao = -(indiceFilho(no, filho.rotulo[0]) + 1);
+        var filhos = new No[no.filhos.length + 1];
+        System.arraycopy(no.filhos, 0, filhos, 0, posicao);
+        filhos[posicao] = filho;
+        System.arraycopy(no.filhos, posicao, filhos, posicao + 1, no.filhos.length - posicao);
+        no.filhos = filhos;
+    }
+
+    private static void removerFilho(No no, No filho) {
+        var posicao = indiceFilho(no, filho.rotulo[0]);
+        var filhos = new No[no.filhos.length - 1];
+        System.arraycopy(no.filhos, 0, filhos, 0, posicao);
+        System.arraycopy(no.filhos, posicao + 1, filhos, posicao, filhos.length - posicao);
+        no.filhos = filhos.length == 0 ? SEM_FILHOS : filhos;
+    }
+
+    private static int prefixoComum(char[] rotulo, String chave, int inicio) {
+        var limite = Math.min(rotulo.length, chave.length() - inicio);
+        var i = 0;
+        while (i < limite && rotulo[i] == chave.charAt(inicio + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static long alinhar(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,70 @@
+package com.forumhub.forumhub.infra.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom thread-safe; as k posições saem de dois hashes de 64 bits (Kirsch-Mitzenmacher)
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long quantidadeBits;
+    private final int quantidadeHashes;
+
+    public BloomFilter(long capacidadeEsperada, double taxaFalsoPositivo) {
+        var n = Math.max(1, capacidadeEsperada);
+        var m = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.quantidadeBits = Math.max(64, m);
+        this.quantidadeHashes = Math.max(1, (int) Math.round((double) quantidadeBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((quantidadeBits + 63) / 64));
+    }
+
+    public void adicionar(String valor) {
+        var dados = valor.getBytes(StandardCharsets.UTF_8);
+        var h1 = hash64(dados, 0x9E3779B97F4A7C15L);
+        var h2 = hash64(dados, 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            var posicao = Math.floorMod(h1 + i * h2, quantidadeBits);
+            var indice = (int) (posicao >>> 6);
+            var mascara = 1L << (posicao & 63);
+            long atual;
+            do {
+                atual = bits.get(indice);
+                if ((atual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(indice, atual, atual | mascara));
+        }
+    }
+
+    public boolean talvezContenha(String valor) {
+        var dados = valor.getBytes(StandardCharsets.UTF_8);
+        var h1 = hash64(dados, 0x9E3779B97F4A7C15L);
+        var h2 = hash64(dados, 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            var posicao = Math.floorMod(h1 + i * h2, quantidadeBits);
+            if ((bits.get((int) (posicao >>> 6)) & (1L << (posicao & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getQuantidadeBits() {
+        return quantidadeBits;
+    }
+
+    private static long hash64(byte[] dados, long semente) {
+        var h = semente ^ (dados.length * 0xFF51AFD7ED558CCDL);
+        for (byte b : dados) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+            h = Long.rotateLeft(h, 27);
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,70 @@
+package com.forumhub.forumhub.infra.util;
+
+import java.util.*;
+import java.util.function.ObjLongConsumer;
+
+// Space-Saving (Metwally et al.): guarda no máximo "capacidade" itens com contagem estimada.
+// Quando está cheio, o item novo toma o lugar do de menor contagem e herda essa contagem, então a
+// estimativa nunca fica abaixo do valor real e itens frequentes não se perdem.
+// As entradas ficam agrupadas por contagem (TreeMap), então achar o menor é O(log n).
+// Não é thread-safe: quem usa controla o acesso.
+public class ItensFrequentes {
+
+    private final int capacidade;
+    private final Map<Long, Entrada> entradas = new HashMap<>();
+    private final TreeMap<Long, Set<Long>> porContagem = new TreeMap<>();
+
+    private static final class Entrada {
+        long contagem;
+
+        Entrada(long contagem) {
+            this.contagem = contagem;
+        }
+    }
+
+    public ItensFrequentes(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    public void adicionar(long id, long peso) {
+        var entrada = entradas.get(id);
+        if (entrada != null) {
+            desindexar(id, entrada.contagem);
+        } else if (entradas.size() < capacidade) {
+            entrada = new Entrada(0);
+            entradas.put(id, entrada);
+        } else {
+            var menor = porContagem.firstEntry();
+            var idMenor = menor.getValue().iterator().next();
+            desindexar(idMenor, menor.getKey());
+            entradas.remove(idMenor);
+            entrada = new Entrada(menor.getKey());
+            entradas.put(id, entrada);
+        }
+        entrada.contagem += peso;
+        porContagem.computeIfAbsent(entrada.contagem, contagem -> new LinkedHashSet<>()).add(id);
+    }
+
+    public void remover(long id) {
+        var entrada = entradas.remove(id);
+        if (entrada != null) {
+            desindexar(id, entrada.contagem);
+        }
+    }
+
+    public void paraCada(ObjLongConsumer<Long> consumidor) {
+        entradas.forEach((id, entrada) -> consumidor.accept(id, entrada.contagem));
+    }
+
+    public int tamanho() {
+        return entradas.size();
+    }
+
+    private void desindexar(long id, long contagem) {
+        var ids = porContagem.get(contagem);
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            porContagem.remove(contagem);
+        }
+    }
+}
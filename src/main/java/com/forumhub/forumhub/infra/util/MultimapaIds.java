@@ -0,0 +1,187 @@
+package com.forumhub.forumhub.infra.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Multimapa chave int -> ids long em arrays primitivos. As chaves ficam numa tabela de endereçamento
+// aberto e cada uma aponta para a sua lista encadeada de ids (nós em dois arrays, sem objeto por nó):
+// uma chave com muitos ids não alonga a sondagem das outras. Cada chave guarda no máximo
+// "maxPorChave" ids, o que limita o custo de percorrer ou remover de uma chave muito repetida.
+// Não é thread-safe: quem usa controla o acesso.
+public class MultimapaIds {
+
+    private static final int VAZIO = 0;
+    private static final int REMOVIDO = -1;
+    private static final int MAX_BITS = 30;
+
+    private final int maxPorChave;
+
+    // inicios: VAZIO, REMOVIDO ou o primeiro nó da lista da chave
+    private int[] chaves;
+    private int[] inicios;
+    private int[] contagens;
+    private int bits;
+    private int chavesOcupadas;
+    private int chavesValidas;
+
+    // Nó 0 marca o fim da lista; nós liberados são reaproveitados pela lista de livres
+    private long[] ids;
+    private int[] proximos;
+    private int proximoNo = 1;
+    private int livres;
+    private int tamanho;
+
+    public MultimapaIds(int maxPorChave) {
+        this.maxPorChave = maxPorChave;
+        alocarChaves(4);
+        ids = new long[16];
+        proximos = new int[16];
+    }
+
+    // false quando a chave já está no limite e o id não entrou
+    public boolean adicionar(int chave, long id) {
+        var posicao = localizar(chave);
+        if (posicao >= 0) {
+            for (int no = inicios[posicao]; no != 0; no = proximos[no]) {
+                if (ids[no] == id) {
+                    return true;
+                }
+            }
+            if (contagens[posicao] >= maxPorChave) {
+                return false;
+            }
+            inicios[posicao] = novoNo(id, inicios[posicao]);
+            contagens[posicao]++;
+            tamanho++;
+            return true;
+        }
+
+        // Carga máxima de 3/4 contando os removidos, que também alongam a sondagem
+        if (chavesOcupadas + 1 > inicios.length - (inicios.length >> 2)) {
+            redimensionar();
+        }
+        posicao = posicao(chave);
+        while (inicios[posicao] > 0) {
+            posicao = (posicao + 1) & (inicios.length - 1);
+        }
+        if (inicios[posicao] == VAZIO) {
+            chavesOcupadas++;
+        }
+        chaves[posicao] = chave;
+        inicios[posicao] = novoNo(id, 0);
+        contagens[posicao] = 1;
+        chavesValidas++;
+        tamanho++;
+        return true;
+    }
+
+    public boolean remover(int chave, long id) {
+        var posicao = localizar(chave);
+        if (posicao < 0) {
+            return false;
+        }
+        var anterior = 0;
+        for (int no = inicios[posicao]; no != 0; anterior = no, no = proximos[no]) {
+            if (ids[no] != id) {
+                continue;
+            }
+            if (anterior == 0) {
+                inicios[posicao] = proximos[no];
+            } else {
+                proximos[anterior] = proximos[no];
+            }
+            proximos[no] = livres;
+            livres = no;
+            tamanho--;
+            if (--contagens[posicao] == 0) {
+                inicios[posicao] = REMOVIDO;
+                chavesValidas--;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public void paraCada(int chave, LongConsumer consumidor) {
+        var posicao = localizar(chave);
+        if (posicao >= 0) {
+            for (int no = inicios[posicao]; no != 0; no = proximos[no]) {
+                consumidor.accept(ids[no]);
+            }
+        }
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    private int localizar(int chave) {
+        var posicao = posicao(chave);
+        while (inicios[posicao] != VAZIO) {
+            if (inicios[posicao] > 0 && chaves[posicao] == chave) {
+                return posicao;
+            }
+            posicao = (posicao + 1) & (inicios.length - 1);
+        }
+        return -1;
+    }
+
+    private int novoNo(long id, int proximo) {
+        int no;
+        if (livres != 0) {
+            no = livres;
+            livres = proximos[no];
+        } else {
+            if (proximoNo == ids.length) {
+                if (ids.length == 1 << MAX_BITS) {
+                    throw new IllegalStateException("Multimapa de ids cheio");
+                }
+                ids = Arrays.copyOf(ids, ids.length * 2);
+                proximos = Arrays.copyOf(proximos, proximos.length * 2);
+            }
+            no = proximoNo++;
+        }
+        ids[no] = id;
+        proximos[no] = proximo;
+        return no;
+    }
+
+    // Dobra quando mais da metade são chaves válidas; senão só reconstrói para descartar as removidas.
+    // Os nós não mudam de lugar: só a tabela de chaves é refeita.
+    private void redimensionar() {
+        var chavesAntigas = chaves;
+        var iniciosAntigos = inicios;
+        var contagensAntigas = contagens;
+        var novosBits = chavesValidas + 1 > iniciosAntigos.length / 2 ? bits + 1 : bits;
+        if (novosBits > MAX_BITS) {
+            throw new IllegalStateException("Multimapa de ids cheio");
+        }
+        alocarChaves(novosBits);
+        for (int i = 0; i < iniciosAntigos.length; i++) {
+            if (iniciosAntigos[i] > 0) {
+                var posicao = posicao(chavesAntigas[i]);
+                while (inicios[posicao] != VAZIO) {
+                    posicao = (posicao + 1) & (inicios.length - 1);
+                }
+                chaves[posicao] = chavesAntigas[i];
+                inicios[posicao] = iniciosAntigos[i];
+                contagens[posicao] = contagensAntigas[i];
+                chavesValidas++;
+                chavesOcupadas++;
+            }
+        }
+    }
+
+    private void alocarChaves(int novosBits) {
+        bits = novosBits;
+        chaves = new int[1 << bits];
+        inicios = new int[1 << bits];
+        contagens = new int[1 << bits];
+        chavesValidas = 0;
+        chavesOcupadas = 0;
+    }
+
+    private int posicao(int chave) {
+        return (int) ((chave * 0x9E3779B97F4A7C15L) >>> (64 - bits));
+    }
+}
@@ -0,0 +1,134 @@
+package com.forumhub.forumhub.infra.util;
+
+// Mapa id -> (assinatura de tamanho fixo, título) em arrays paralelos (endereçamento aberto com
+// sondagem linear): nada de Long, Map.Entry ou um byte[] por id. Ids precisam ser positivos.
+// Não é thread-safe: quem usa controla o acesso.
+public class TabelaAssinaturas {
+
+    private static final long VAZIO = 0;
+    private static final long REMOVIDO = -1;
+    private static final int MAX_BITS = 30;
+    // Maior array que as JVMs costumam aceitar
+    private static final long MAX_BYTES = Integer.MAX_VALUE - 8;
+
+    private final int largura;
+    private long[] ids;
+    private byte[] assinaturas;
+    private String[] titulos;
+    private int bits;
+    private int tamanho;
+    private int ocupados;
+
+    public TabelaAssinaturas(int largura) {
+        this.largura = largura;
+        alocar(4);
+    }
+
+    public void colocar(long id, byte[] assinatura, String titulo) {
+        // Carga máxima de 3/4 contando os removidos, que também alongam a sondagem
+        if (ocupados + 1 > ids.length - (ids.length >> 2)) {
+            redimensionar();
+        }
+        var posicao = posicao(id);
+        var livre = -1;
+        while (ids[posicao] != VAZIO) {
+            if (ids[posicao] == id) {
+                System.arraycopy(assinatura, 0, assinaturas, posicao * largura, largura);
+                titulos[posicao] = titulo;
+                return;
+            }
+            if (ids[posicao] == REMOVIDO && livre < 0) {
+                livre = posicao;
+            }
+            posicao = (posicao + 1) & (ids.length - 1);
+        }
+        if (livre < 0) {
+            livre = posicao;
+            ocupados++;
+        }
+        ids[livre] = id;
+        System.arraycopy(assinatura, 0, assinaturas, livre * largura, largura);
+        titulos[livre] = titulo;
+        tamanho++;
+    }
+
+    // Copia a assinatura do id para o destino; false se o id não está na tabela
+    public boolean copiar(long id, byte[] destino) {
+        var posicao = buscar(id);
+        if (posicao < 0) {
+            return false;
+        }
+        System.arraycopy(assinaturas, posicao * largura, destino, 0, largura);
+        return true;
+    }
+
+    public String titulo(long id) {
+        var posicao = buscar(id);
+        return posicao < 0 ? null : titulos[posicao];
+    }
+
+    public boolean remover(long id) {
+        var posicao = buscar(id);
+        if (posicao < 0) {
+            return false;
+        }
+        ids[posicao] = REMOVIDO;
+        titulos[posicao] = null;
+        tamanho--;
+        return true;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    private int buscar(long id) {
+        var posicao = posicao(id);
+        while (ids[posicao] != VAZIO) {
+            if (ids[posicao] == id) {
+                return posicao;
+            }
+            posicao = (posicao + 1) & (ids.length - 1);
+        }
+        return -1;
+    }
+
+    // Dobra quando mais da metade são ids válidos; senão só reconstrói para descartar os removidos
+    private void redimensionar() {
+        var idsAntigos = ids;
+        var assinaturasAntigas = assinaturas;
+        var titulosAntigos = titulos;
+        alocar(tamanho + 1 > idsAntigos.length / 2 ? bits + 1 : bits);
+        for (int i = 0; i < idsAntigos.length; i++) {
+            if (idsAntigos[i] > 0) {
+                var posicao = posicao(idsAntigos[i]);
+                while (ids[posicao] != VAZIO) {
+                    posicao = (posicao + 1) & (ids.length - 1);
+                }
+                ids[posicao] = idsAntigos[i];
+                System.arraycopy(assinaturasAntigas, i * largura, assinaturas, posicao * largura, largura);
+                titulos[posicao] = titulosAntigos[i];
+                tamanho++;
+                ocupados++;
+            }
+        }
+    }
+
+    // Conta em long: com 64 bytes por assinatura, o int estoura já em 2^25 posições
+    private void alocar(int novosBits) {
+        if (novosBits > MAX_BITS || (long) largura << novosBits > MAX_BYTES) {
+            throw new IllegalStateException("Tabela de assinaturas cheia");
+        }
+        bits = novosBits;
+        ids = new long[1 << bits];
+        assinaturas = new byte[(1 << bits) * largura];
+        titulos = new String[1 << bits];
+        tamanho = 0;
+        ocupados = 0;
+    }
+
+    // Hash de Fibonacci: ids sequenciais se espalham pela tabela
+    private int posicao(long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> (64 - bits));
+    }
+}
@@ -0,0 +1,6 @@
+package com.forumhub.forumhub.model;
+
+public enum Perfil {
+    USER,
+    ADMIN;
+}
@@ -0,0 +1,29 @@
+package com.forumhub.forumhub.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Table(name = "refresh_tokens")
+@Entity(name = "RefreshToken")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "hash")
+public class RefreshToken {
+
+    @Id
+    private String hash;
+
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    private String login;
+
+    @Column(name = "expira_em")
+    private LocalDateTime expiraEm;
+}
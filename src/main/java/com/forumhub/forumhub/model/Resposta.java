@@ -1,7 +1,6 @@
 package com.forumhub.forumhub.model;
 
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,12 +11,12 @@ import java.time.LocalDateTime;
 @Entity(name = "Resposta")
 @Getter
 @NoArgsConstructor
-@AllArgsConstructor
 @EqualsAndHashCode(of = "id")
 public class Resposta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "respostas_seq")
+    @SequenceGenerator(name = "respostas_seq", sequenceName = "respostas_seq", allocationSize = 50)
     private Long id;
 
     private String mensagem;
@@ -35,6 +34,18 @@ public class Resposta {
 
     private Boolean solucao = false;
 
+    @Version
+    private Long versao;
+
+    public Resposta(Long id, String mensagem, Topico topico, LocalDateTime dataCriacao, Usuario autor, Boolean solucao) {
+        this.id = id;
+        this.mensagem = mensagem;
+        this.topico = topico;
+        this.dataCriacao = dataCriacao;
+        this.autor = autor;
+        this.solucao = solucao;
+    }
+
     public void atualizarInformacoes(String mensagem) {
         if (mensagem != null && !mensagem.isBlank()) {
             this.mensagem = mensagem;
@@ -0,0 +1,24 @@
+package com.forumhub.forumhub.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Table(name = "tokens_revogados")
+@Entity(name = "TokenRevogado")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "jti")
+public class TokenRevogado {
+
+    @Id
+    private String jti;
+
+    @Column(name = "expira_em")
+    private LocalDateTime expiraEm;
+}
@@ -2,25 +2,35 @@ package com.forumhub.forumhub.model;
 
 import com.forumhub.forumhub.dto.topico.DadosAtualizacaoTopico;
 import com.forumhub.forumhub.dto.topico.DadosCadastroTopico;
+import com.forumhub.forumhub.infra.topico.TopicoListener;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 @Table(name = "topicos")
 @Entity(name = "Topico")
 @Getter
 @NoArgsConstructor
-@AllArgsConstructor
 @EqualsAndHashCode(of = "id")
+@EntityListeners(TopicoListener.class)
 public class Topico {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private static final Pattern ESPACOS = Pattern.compile("\\s+", Pattern.UNICODE_CHARACTER_CLASS);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "topicos_seq")
+    @SequenceGenerator(name = "topicos_seq", sequenceName = "topicos_seq", allocationSize = 50)
     private Long id;
     private String titulo;
     private String mensagem;
@@ -38,6 +48,41 @@ public class Topico {
     private String autor;
     private String curso;
 
+    @Column(name = "hash_conteudo")
+    private String hashConteudo;
+
+    // Mantidos por UPDATEs relativos (TopicoRepository) e pela reconciliação, nunca pela entidade
+    @Column(name = "total_respostas", insertable = false, updatable = false)
+    private int totalRespostas;
+
+    @Column(name = "data_ultima_atividade", updatable = false)
+    private LocalDateTime dataUltimaAtividade;
+
+    @Column(name = "id_solucao", insertable = false, updatable = false)
+    private Long idSolucao;
+
+    // Somado em lote pelo ContadorVisualizacoes; não altera a versão do tópico
+    @Column(name = "visualizacoes", insertable = false, updatable = false)
+    private long visualizacoes;
+
+    @Version
+    private Long versao;
+
+    public Topico(Long id, String titulo, String mensagem, boolean ativo, LocalDateTime dataCriacao,
+                  StatusTopico status, List<Resposta> respostas, String autor, String curso) {
+        this.id = id;
+        this.titulo = titulo;
+        this.mensagem = mensagem;
+        this.ativo = ativo;
+        this.dataCriacao = dataCriacao;
+        this.status = status;
+        this.respostas = respostas;
+        this.autor = autor;
+        this.curso = curso;
+        this.hashConteudo = gerarHashConteudo(titulo, mensagem);
+        this.dataUltimaAtividade = dataCriacao;
+    }
+
     public Topico(DadosCadastroTopico dados) {
         this.ativo = true;
         this.dataCriacao = LocalDateTime.now();
@@ -46,6 +91,8 @@ public class Topico {
         this.mensagem = dados.mensagem();
         this.autor = dados.autor();
         this.curso = dados.curso();
+        this.hashConteudo = gerarHashConteudo(titulo, mensagem);
+        this.dataUltimaAtividade = this.dataCriacao;
     }
 
     public void atualizarInformacoes(DadosAtualizacaoTopico dados) {
@@ -58,6 +105,7 @@ public class Topico {
         if (dados.status() != null) {
             this.status = dados.status();
         }
+        this.hashConteudo = gerarHashConteudo(titulo, mensagem);
     }
 
     public void excluir() {
@@ -67,4 +115,19 @@ public class Topico {
     public boolean isAtivo() {
         return this.ativo;
     }
+
+    // SHA-256 de título + mensagem normalizados; mesma normalização do backfill na migration V9
+    public static String gerarHashConteudo(String titulo, String mensagem) {
+        try {
+            var conteudo = normalizar(titulo) + "\n" + normalizar(mensagem);
+            var hash = MessageDigest.getInstance("SHA-256").digest(conteudo.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normalizar(String texto) {
+        return ESPACOS.matcher(texto.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.forumhub.forumhub.model;
 
+import com.forumhub.forumhub.infra.security.UsuarioCacheListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
@@ -13,21 +14,32 @@ import java.util.List;
 @Entity(name = "Usuario")
 @Getter
 @NoArgsConstructor
-@AllArgsConstructor
 @EqualsAndHashCode(of = "id")
+@EntityListeners(UsuarioCacheListener.class)
 public class Usuario implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_seq")
+    @SequenceGenerator(name = "usuarios_seq", sequenceName = "usuarios_seq", allocationSize = 50)
     private Long id;
     @Setter
     private String login;
     @Setter
     private String senha;
 
+    // Atribuído direto no banco; o cadastro pela API sempre cria USER
+    @Enumerated(EnumType.STRING)
+    private Perfil perfil = Perfil.USER;
+
+    public Usuario(Long id, String login, String senha) {
+        this.id = id;
+        this.login = login;
+        this.senha = senha;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        return List.of(new SimpleGrantedAuthority("ROLE_" + perfil.name()));
     }
 
     @Override
@@ -0,0 +1,27 @@
+package com.forumhub.forumhub.repository;
+
+import com.forumhub.forumhub.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.expiraEm < :agora")
+    int deleteExpirados(LocalDateTime agora);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.hash = :hash")
+    int deleteByHash(String hash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.usuarioId = :usuarioId")
+    int deleteByUsuarioId(Long usuarioId);
+}
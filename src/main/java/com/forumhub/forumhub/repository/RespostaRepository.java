@@ -1,10 +1,79 @@
 package com.forumhub.forumhub.repository;
 
+import com.forumhub.forumhub.dto.resposta.DadosListagemResposta;
+import com.forumhub.forumhub.dto.resposta.DadosVersaoRespostas;
+import com.forumhub.forumhub.dto.topico.DadosAtividadeTopico;
 import com.forumhub.forumhub.model.Resposta;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface RespostaRepository extends JpaRepository<Resposta, Long> {
     List<Resposta> findByTopicoId(Long idTopico);
-}
\ No newline at end of file
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+            SELECT new com.forumhub.forumhub.dto.topico.DadosAtividadeTopico(t.id, t.curso, r.dataCriacao)
+            FROM Resposta r JOIN r.topico t
+            WHERE r.dataCriacao >= :desde AND t.ativo = true
+            """)
+    Stream<DadosAtividadeTopico> streamAtividadeDesde(LocalDateTime desde);
+
+    // Vazio quando o tópico não existe: a mesma consulta serve de verificação de existência
+    @Query("""
+            SELECT new com.forumhub.forumhub.dto.resposta.DadosVersaoRespostas(t.versao, COUNT(r))
+            FROM Topico t LEFT JOIN t.respostas r
+            WHERE t.id = :idTopico
+            GROUP BY t.id, t.versao
+            """)
+    Optional<DadosVersaoRespostas> findVersaoByTopicoId(Long idTopico);
+
+    @Query("""
+            SELECT new com.forumhub.forumhub.dto.resposta.DadosListagemResposta(r.id, r.mensagem, r.dataCriacao, a.login, r.solucao)
+            FROM Resposta r JOIN r.autor a
+            WHERE r.topico.id = :idTopico
+            ORDER BY r.dataCriacao, r.id
+            """)
+    List<DadosListagemResposta> findPrimeiraPagina(Long idTopico, Limit limite);
+
+    @Query("""
+            SELECT new com.forumhub.forumhub.dto.resposta.DadosListagemResposta(r.id, r.mensagem, r.dataCriacao, a.login, r.solucao)
+            FROM Resposta r JOIN r.autor a
+            WHERE r.topico.id = :idTopico
+              AND (r.dataCriacao > :dataCriacao OR (r.dataCriacao = :dataCriacao AND r.id > :id))
+            ORDER BY r.dataCriacao, r.id
+            """)
+    List<DadosListagemResposta> findPaginaApos(Long idTopico, LocalDateTime dataCriacao, Long id, Limit limite);
+
+    @Query("""
+            SELECT new com.forumhub.forumhub.dto.resposta.DadosListagemResposta(r.id, r.mensagem, r.dataCriacao, a.login, r.solucao)
+            FROM Resposta r JOIN r.autor a
+            WHERE r.topico.id = :idTopico AND r.solucao = true
+            ORDER BY r.id
+            """)
+    List<DadosListagemResposta> findSolucoes(Long idTopico, Limit limite);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Resposta r SET r.solucao = true, r.versao = r.versao + 1
+            WHERE r.id = :idResposta AND r.topico.id = :idTopico
+            """)
+    int marcarSolucao(Long idTopico, Long idResposta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Resposta r SET r.solucao = false, r.versao = r.versao + 1
+            WHERE r.topico.id = :idTopico AND r.solucao = true AND r.id <> :idResposta
+            """)
+    int desmarcarOutrasSolucoes(Long idTopico, Long idResposta);
+}
@@ -0,0 +1,21 @@
+package com.forumhub.forumhub.repository;
+
+import com.forumhub.forumhub.model.TokenRevogado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TokenRevogadoRepository extends JpaRepository<TokenRevogado, String> {
+
+    @Query("SELECT t.jti FROM TokenRevogado t WHERE t.expiraEm >= :agora")
+    List<String> findJtisValidos(LocalDateTime agora);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevogado t WHERE t.expiraEm < :agora")
+    int deleteExpirados(LocalDateTime agora);
+}
@@ -1,18 +1,61 @@
 package com.forumhub.forumhub.repository;
 
+import com.forumhub.forumhub.dto.topico.DadosConteudoTopico;
 import com.forumhub.forumhub.model.Topico;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface TopicoRepository extends JpaRepository<Topico, Long>, JpaSpecificationExecutor<Topico> {
-    boolean existsByTituloAndMensagem(String titulo, String mensagem);
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
-    Optional<Topico> findByTituloAndMensagem(String titulo, String mensagem);
+public interface TopicoRepository extends JpaRepository<Topico, Long>, JpaSpecificationExecutor<Topico>, TopicoRepositoryCustom {
+    boolean existsByHashConteudo(String hashConteudo);
+
+    boolean existsByHashConteudoAndIdNot(String hashConteudo, Long id);
+
+    boolean existsByIdAndAtivoTrue(Long id);
+
+    @Query("SELECT t.hashConteudo FROM Topico t WHERE t.hashConteudo IN :hashes")
+    Set<String> findHashesExistentes(Collection<String> hashes);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT t.hashConteudo FROM Topico t")
+    Stream<String> streamHashesConteudo();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+            SELECT new com.forumhub.forumhub.dto.topico.DadosConteudoTopico(t.id, t.titulo, t.mensagem, t.curso)
+            FROM Topico t WHERE t.ativo = true
+            """)
+    Stream<DadosConteudoTopico> streamConteudoAtivos();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+            SELECT new com.forumhub.forumhub.dto.topico.DadosConteudoTopico(t.id, t.titulo, t.mensagem, t.curso)
+            FROM Topico t WHERE t.ativo = true AND t.id >= :inicio AND t.id < :fim
+            """)
+    Stream<DadosConteudoTopico> streamConteudoAtivosEntre(long inicio, long fim);
+
+    @Query("""
+            SELECT new com.forumhub.forumhub.dto.topico.DadosConteudoTopico(t.id, t.titulo, t.mensagem, t.curso)
+            FROM Topico t WHERE t.ativo = true AND t.id IN :ids
+            """)
+    List<DadosConteudoTopico> findConteudoAtivosByIdIn(Collection<Long> ids);
+
+    @Query("SELECT COALESCE(MAX(t.id), 0) FROM Topico t")
+    long findMaiorId();
 
     Page<Topico> findAllByAtivoTrue(Pageable paginacao);
 
@@ -20,4 +63,61 @@ public interface TopicoRepository extends JpaRepository<Topico, Long>, JpaSpecif
             SELECT t FROM Topico t WHERE t.id = :id AND t.ativo = true
             """)
     Optional<Topico> findAtivoById(Long id);
-}
\ No newline at end of file
+
+    // UPDATEs relativos: não leem a linha antes, então respostas simultâneas não perdem incremento.
+    // O MySQL avalia o SET da esquerda para a direita, por isso o status vem antes dos campos que ele consulta.
+    // Rodam ANTES de gravar/excluir a resposta: toda escrita trava primeiro o tópico e depois as respostas,
+    // evitando deadlock com o lock compartilhado que a FK de respostas pega no tópico.
+    // Cada expressão do SET lê só a própria coluna ou a tabela de respostas, então o resultado não depende
+    // da ordem em que o banco aplica as atribuições. O clear descarta os Topico já carregados, que ficariam
+    // com contadores e versão antigos: quem chama carrega as entidades depois do UPDATE.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Topico t SET
+                t.status = CASE WHEN t.status = com.forumhub.forumhub.model.StatusTopico.NAO_RESPONDIDO
+                    THEN com.forumhub.forumhub.model.StatusTopico.NAO_SOLUCIONADO ELSE t.status END,
+                t.totalRespostas = t.totalRespostas + 1,
+                t.dataUltimaAtividade = CASE WHEN t.dataUltimaAtividade < :dataResposta
+                    THEN :dataResposta ELSE t.dataUltimaAtividade END,
+                t.versao = t.versao + 1
+            WHERE t.id = :id
+            """)
+    int registrarResposta(Long id, LocalDateTime dataResposta);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Topico t SET
+                t.status = CASE
+                    WHEN t.status = com.forumhub.forumhub.model.StatusTopico.FECHADO THEN t.status
+                    WHEN NOT EXISTS (SELECT r.id FROM Resposta r WHERE r.topico.id = :id AND r.id <> :idResposta)
+                        THEN com.forumhub.forumhub.model.StatusTopico.NAO_RESPONDIDO
+                    WHEN EXISTS (SELECT r.id FROM Resposta r WHERE r.id = :idResposta AND r.solucao = true)
+                        THEN com.forumhub.forumhub.model.StatusTopico.NAO_SOLUCIONADO
+                    ELSE t.status END,
+                t.idSolucao = CASE WHEN t.idSolucao = :idResposta THEN NULL ELSE t.idSolucao END,
+                t.totalRespostas = CASE WHEN t.totalRespostas > 0 THEN t.totalRespostas - 1 ELSE 0 END,
+                t.dataUltimaAtividade = COALESCE(
+                    (SELECT MAX(r.dataCriacao) FROM Resposta r WHERE r.topico.id = :id AND r.id <> :idResposta),
+                    t.dataCriacao),
+                t.versao = t.versao + 1
+            WHERE t.id = :id
+            """)
+    int removerResposta(Long id, Long idResposta);
+
+    // Edição de resposta não muda contadores, só a versão que serve de ETag da coleção de respostas
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Topico t SET t.versao = t.versao + 1 WHERE t.id = :id")
+    int registrarEdicaoResposta(Long id);
+
+    // Trava a linha do tópico: aceites simultâneos no mesmo tópico ficam em fila até o commit
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Topico t SET
+                t.status = com.forumhub.forumhub.model.StatusTopico.SOLUCIONADO,
+                t.idSolucao = :idResposta,
+                t.versao = t.versao + 1
+            WHERE t.id = :id AND t.ativo = true
+              AND t.status <> com.forumhub.forumhub.model.StatusTopico.FECHADO
+            """)
+    int aceitarSolucao(Long id, Long idResposta);
+}
@@ -0,0 +1,19 @@
+package com.forumhub.forumhub.repository;
+
+import com.forumhub.forumhub.dto.exportacao.DadosLinhaExportacao;
+import com.forumhub.forumhub.dto.topico.DadosListagemTopico;
+import com.forumhub.forumhub.model.Topico;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TopicoRepositoryCustom {
+    Page<DadosListagemTopico> listarResumos(Specification<Topico> spec, Pageable paginacao);
+
+    List<DadosListagemTopico> listarResumosPorCursor(Specification<Topico> spec, int limite);
+
+    Stream<DadosLinhaExportacao> streamExportacao(Specification<Topico> spec, boolean comRespostas);
+}
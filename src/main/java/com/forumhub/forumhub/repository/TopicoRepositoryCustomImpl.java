@@ -0,0 +1,272 @@
+package com.forumhub.forumhub.repository;
+
+import com.forumhub.forumhub.dto.exportacao.DadosLinhaExportacao;
+import com.forumhub.forumhub.dto.topico.DadosListagemTopico;
+import com.forumhub.forumhub.model.Resposta;
+import com.forumhub.forumhub.model.Topico;
+import com.forumhub.forumhub.model.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+// Listagem montada direto no DTO (SELECT new ...): o Hibernate não cria entidades, snapshots
+// de dirty checking nem o proxy da coleção de respostas. Aceita as mesmas Specifications e
+// a mesma ordenação do findAll(spec, pageable).
+public class TopicoRepositoryCustomImpl implements TopicoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<DadosListagemTopico> listarResumos(Specification<Topico> spec, Pageable paginacao) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(DadosListagemTopico.class);
+        var root = query.from(Topico.class);
+
+        query.select(construirResumo(criteriaBuilder, root));
+
+        var predicado = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        query.orderBy(QueryUtils.toOrders(paginacao.getSort(), root, criteriaBuilder));
+
+        var typedQuery = entityManager.createQuery(query);
+        if (paginacao.isPaged()) {
+            typedQuery.setFirstResult((int) paginacao.getOffset());
+            typedQuery.setMaxResults(paginacao.getPageSize());
+        }
+
+        // O COUNT só roda quando o total não pode ser deduzido da própria página
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), paginacao, () -> contar(spec));
+    }
+
+    // Keyset: a spec já traz o filtro "depois do cursor"; ordem (data_criacao, id), a mesma do índice
+    @Override
+    @Transactional(readOnly = true)
+    public List<DadosListagemTopico> listarResumosPorCursor(Specification<Topico> spec, int limite) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(DadosListagemTopico.class);
+        var root = query.from(Topico.class);
+
+        query.select(construirResumo(criteriaBuilder, root));
+        var predicado = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        query.orderBy(criteriaBuilder.asc(root.get("dataCriacao")), criteriaBuilder.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    private static CompoundSelection<DadosListagemTopico> construirResumo(CriteriaBuilder criteriaBuilder, Root<Topico> root) {
+        return criteriaBuilder.construct(DadosListagemTopico.class,
+                root.get("id"), root.get("titulo"), root.get("mensagem"), root.get("dataCriacao"),
+                root.get("status"), root.get("autor"), root.get("curso"), root.get("totalRespostas"),
+                root.get("dataUltimaAtividade"), root.get("visualizacoes"));
+    }
+
+    @Value("${app.exportacao.bloco}")
+    private int tamanhoBloco;
+
+    // Sem respostas: cursor só de leitura em ordem de id; com o fetch size MIN_VALUE o driver do MySQL
+    // entrega linha a linha. Com respostas: blocos de tópicos por id e, para cada bloco, as respostas
+    // pelo idx_respostas_topico_data_criacao_id (o JOIN ordenado por t.id, r.data_criacao caía em filesort).
+    // Quem chama abre a transação e fecha o Stream.
+    @Override
+    public Stream<DadosLinhaExportacao> streamExportacao(Specification<Topico> spec, boolean comRespostas) {
+        if (comRespostas) {
+            var linhas = new LinhasComRespostas(spec);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(linhas, Spliterator.ORDERED), false)
+                    .onClose(linhas::fecharRespostas);
+        }
+
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(DadosLinhaExportacao.class);
+        var root = query.from(Topico.class);
+
+        query.select(construirLinhaTopico(criteriaBuilder, root));
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        var predicado = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+
+        return entityManager.createQuery(query)
+                .setHint(HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .getResultStream();
+    }
+
+    // Próximo bloco de tópicos depois do id informado (keyset pela PK)
+    private List<DadosLinhaExportacao> buscarBlocoTopicos(Specification<Topico> spec, long aposId) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(DadosLinhaExportacao.class);
+        var root = query.from(Topico.class);
+
+        query.select(construirLinhaTopico(criteriaBuilder, root));
+        var aposCursor = criteriaBuilder.gt(root.<Long>get("id"), aposId);
+        var predicado = spec.toPredicate(root, query, criteriaBuilder);
+        query.where(predicado != null ? criteriaBuilder.and(predicado, aposCursor) : aposCursor);
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(tamanhoBloco)
+                .getResultList();
+    }
+
+    // Respostas dos tópicos do bloco na ordem do índice (topico_id, data_criacao, id); o LEFT JOIN
+    // mantém respostas como tabela guia, então a ordem sai do índice
+    private Stream<Object[]> streamRespostasDoBloco(Collection<Long> idsTopicos) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(Object[].class);
+        var resposta = query.from(Resposta.class);
+        var autor = resposta.<Resposta, Usuario>join("autor", JoinType.LEFT);
+        var topico = resposta.get("topico").get("id");
+
+        query.multiselect(topico, resposta.get("id"), resposta.get("mensagem"), resposta.get("dataCriacao"),
+                autor.get("login"), resposta.get("solucao"));
+        query.where(topico.in(idsTopicos));
+        query.orderBy(criteriaBuilder.asc(topico), criteriaBuilder.asc(resposta.get("dataCriacao")),
+                criteriaBuilder.asc(resposta.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .getResultStream();
+    }
+
+    private static CompoundSelection<DadosLinhaExportacao> construirLinhaTopico(CriteriaBuilder criteriaBuilder, Root<Topico> root) {
+        return criteriaBuilder.construct(DadosLinhaExportacao.class,
+                root.get("id"), root.get("titulo"), root.get("mensagem"), root.get("dataCriacao"),
+                root.get("status"), root.get("autor"), root.get("curso"), root.get("totalRespostas"),
+                root.get("dataUltimaAtividade"));
+    }
+
+    // Junta cada bloco de tópicos com as respostas dele, que chegam na mesma ordem de id. Tópico sem
+    // resposta vira uma linha com os campos da resposta nulos, como no LEFT JOIN. O cursor de respostas
+    // é fechado antes do próximo bloco: o driver não aceita outra consulta com um cursor aberto.
+    private final class LinhasComRespostas implements Iterator<DadosLinhaExportacao> {
+
+        private final Specification<Topico> spec;
+        private Iterator<DadosLinhaExportacao> topicos = Collections.emptyIterator();
+        private Stream<Object[]> streamRespostas;
+        private Iterator<Object[]> respostas = Collections.emptyIterator();
+        private Object[] respostaPendente;
+        private DadosLinhaExportacao topicoAtual;
+        private boolean topicoAtualEscrito;
+        private long ultimoId;
+        private boolean ultimoBloco;
+        private DadosLinhaExportacao proxima;
+
+        LinhasComRespostas(Specification<Topico> spec) {
+            this.spec = spec;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (proxima == null) {
+                proxima = avancar();
+            }
+            return proxima != null;
+        }
+
+        @Override
+        public DadosLinhaExportacao next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var linha = proxima;
+            proxima = null;
+            return linha;
+        }
+
+        private DadosLinhaExportacao avancar() {
+            while (true) {
+                if (topicoAtual != null) {
+                    if (respostaPendente == null && respostas.hasNext()) {
+                        respostaPendente = respostas.next();
+                    }
+                    if (respostaPendente != null && topicoAtual.id().equals(respostaPendente[0])) {
+                        var resposta = respostaPendente;
+                        respostaPendente = null;
+                        topicoAtualEscrito = true;
+                        return comResposta(topicoAtual, resposta);
+                    }
+                    if (!topicoAtualEscrito) {
+                        topicoAtualEscrito = true;
+                        return topicoAtual;
+                    }
+                    topicoAtual = null;
+                }
+
+                if (topicos.hasNext()) {
+                    topicoAtual = topicos.next();
+                    topicoAtualEscrito = false;
+                    continue;
+                }
+
+                fecharRespostas();
+                if (ultimoBloco) {
+                    return null;
+                }
+                var bloco = buscarBlocoTopicos(spec, ultimoId);
+                ultimoBloco = bloco.size() < tamanhoBloco;
+                if (bloco.isEmpty()) {
+                    return null;
+                }
+                ultimoId = bloco.getLast().id();
+                topicos = bloco.iterator();
+                streamRespostas = streamRespostasDoBloco(bloco.stream().map(DadosLinhaExportacao::id).toList());
+                respostas = streamRespostas.iterator();
+            }
+        }
+
+        void fecharRespostas() {
+            if (streamRespostas != null) {
+                streamRespostas.close();
+                streamRespostas = null;
+                respostas = Collections.emptyIterator();
+            }
+        }
+
+        private static DadosLinhaExportacao comResposta(DadosLinhaExportacao topico, Object[] resposta) {
+            return new DadosLinhaExportacao(topico.id(), topico.titulo(), topico.mensagem(), topico.dataCriacao(),
+                    topico.status(), topico.autor(), topico.curso(), topico.totalRespostas(),
+                    topico.dataUltimaAtividade(), (Long) resposta[1], (String) resposta[2],
+                    (LocalDateTime) resposta[3], (String) resposta[4], (Boolean) resposta[5]);
+        }
+    }
+
+    private long contar(Specification<Topico> spec) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(Long.class);
+        var root = query.from(Topico.class);
+
+        query.select(criteriaBuilder.count(root));
+        var predicado = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
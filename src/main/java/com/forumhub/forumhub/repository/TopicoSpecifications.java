@@ -0,0 +1,48 @@
+package com.forumhub.forumhub.repository;
+
+import com.forumhub.forumhub.infra.paginacao.Cursor;
+import com.forumhub.forumhub.model.Topico;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TopicoSpecifications {
+
+    private TopicoSpecifications() {
+    }
+
+    public static Specification<Topico> ativosFiltrados(String curso, Integer ano) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            // "ativo = true" e não só "ativo": a igualdade é o que deixa o MySQL usar o prefixo dos índices
+            predicates.add(criteriaBuilder.equal(root.get("ativo"), true));
+
+            if (curso != null && !curso.isEmpty()) {
+                predicates.add(criteriaBuilder.equal(root.get("curso"), curso));
+            }
+
+            // Intervalo [1º de janeiro, 1º de janeiro do ano seguinte) em vez de YEAR(data_criacao), para usar o índice
+            if (ano != null) {
+                var inicio = LocalDate.of(ano, 1, 1).atStartOfDay();
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("dataCriacao"), inicio));
+                predicates.add(criteriaBuilder.lessThan(root.get("dataCriacao"), inicio.plusYears(1)));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<Topico> aposCursor(Cursor cursor) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.or(
+                criteriaBuilder.greaterThan(root.get("dataCriacao"), cursor.dataCriacao()),
+                criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get("dataCriacao"), cursor.dataCriacao()),
+                        criteriaBuilder.greaterThan(root.get("id"), cursor.id())
+                )
+        );
+    }
+}
@@ -2,8 +2,12 @@ package com.forumhub.forumhub.repository;
 
 import com.forumhub.forumhub.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByLogin(String login);
+
+    List<Usuario> findAllByLoginIn(Collection<String> logins);
 }
@@ -0,0 +1,64 @@
+package db.migration;
+
+import com.forumhub.forumhub.model.Topico;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+// A V9 calculou hash_conteudo em SQL (REGEXP [[:space:]] e LOWER do MySQL), que não normaliza
+// espaços e caixa como Topico.gerarHashConteudo: tópicos já gravados podiam escapar da detecção de
+// duplicados. Recalcula todos os hashes com o mesmo código da aplicação, percorrendo os ids em lotes,
+// e refaz a desduplicação da V16 antes de recriar o índice único.
+public class V18__Recalcular_hash_conteudo_topicos extends BaseJavaMigration {
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    private static final String SQL_LOTE = "SELECT id, titulo, mensagem FROM topicos WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String SQL_ATUALIZAR = "UPDATE topicos SET hash_conteudo = ? WHERE id = ?";
+
+    // Mesma regra da V16: o mais antigo fica com o hash, os demais ganham um hash próprio
+    private static final String SQL_DESDUPLICAR = """
+            UPDATE topicos t
+            JOIN (
+                SELECT hash_conteudo, MIN(id) AS id
+                FROM topicos
+                GROUP BY hash_conteudo
+                HAVING COUNT(*) > 1
+            ) d ON d.hash_conteudo = t.hash_conteudo AND t.id > d.id
+            SET t.hash_conteudo = SHA2(CONCAT(t.hash_conteudo, ':', t.id), 256)
+            """;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        var conexao = context.getConnection();
+        try (var comando = conexao.createStatement()) {
+            comando.execute("DROP INDEX uk_topicos_hash_conteudo ON topicos");
+        }
+
+        var ultimoId = 0L;
+        try (var lote = conexao.prepareStatement(SQL_LOTE);
+             var atualizar = conexao.prepareStatement(SQL_ATUALIZAR)) {
+            lote.setInt(2, TAMANHO_LOTE);
+            int lidos;
+            do {
+                lidos = 0;
+                lote.setLong(1, ultimoId);
+                try (var linhas = lote.executeQuery()) {
+                    while (linhas.next()) {
+                        ultimoId = linhas.getLong("id");
+                        atualizar.setString(1, Topico.gerarHashConteudo(linhas.getString("titulo"), linhas.getString("mensagem")));
+                        atualizar.setLong(2, ultimoId);
+                        atualizar.addBatch();
+                        lidos++;
+                    }
+                }
+                atualizar.executeBatch();
+            } while (lidos == TAMANHO_LOTE);
+        }
+
+        try (var comando = conexao.createStatement()) {
+            comando.executeUpdate(SQL_DESDUPLICAR);
+            comando.execute("CREATE UNIQUE INDEX uk_topicos_hash_conteudo ON topicos (hash_conteudo)");
+        }
+    }
+}
@@ -0,0 +1,3 @@
+ALTER TABLE topicos ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE respostas ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
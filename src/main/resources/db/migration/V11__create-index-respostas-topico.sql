@@ -0,0 +1 @@
+CREATE INDEX idx_respostas_topico_data_criacao_id ON respostas (topico_id, data_criacao, id);
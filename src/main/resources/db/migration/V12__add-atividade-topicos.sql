@@ -0,0 +1,22 @@
+ALTER TABLE topicos
+    ADD COLUMN total_respostas INT NOT NULL DEFAULT 0,
+    ADD COLUMN data_ultima_atividade DATETIME NULL,
+    ADD COLUMN id_solucao BIGINT NULL;
+
+UPDATE topicos t
+LEFT JOIN (
+    SELECT topico_id,
+           COUNT(*) AS total,
+           MAX(data_criacao) AS ultima,
+           MIN(CASE WHEN solucao THEN id END) AS solucao
+    FROM respostas
+    GROUP BY topico_id
+) r ON r.topico_id = t.id
+SET t.total_respostas = COALESCE(r.total, 0),
+    t.data_ultima_atividade = GREATEST(t.data_criacao, COALESCE(r.ultima, t.data_criacao)),
+    t.id_solucao = r.solucao,
+    t.status = CASE WHEN t.status = 'NAO_RESPONDIDO' AND r.total > 0 THEN 'NAO_SOLUCIONADO' ELSE t.status END;
+
+ALTER TABLE topicos MODIFY data_ultima_atividade DATETIME NOT NULL;
+
+CREATE INDEX idx_topicos_ativo_ultima_atividade_id ON topicos (ativo, data_ultima_atividade, id);
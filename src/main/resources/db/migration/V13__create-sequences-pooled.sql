@@ -0,0 +1,10 @@
+-- Tabelas de sequência do Hibernate (MySQL não tem SEQUENCE). Com allocationSize = 50 e otimizador
+-- pooled, o valor guardado é o topo do próximo bloco: MAX(id) + 51 garante blocos acima dos ids atuais.
+CREATE TABLE topicos_seq (next_val BIGINT NOT NULL);
+INSERT INTO topicos_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM topicos;
+
+CREATE TABLE respostas_seq (next_val BIGINT NOT NULL);
+INSERT INTO respostas_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM respostas;
+
+CREATE TABLE usuarios_seq (next_val BIGINT NOT NULL);
+INSERT INTO usuarios_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM usuarios;
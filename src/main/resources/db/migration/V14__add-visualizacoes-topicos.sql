@@ -0,0 +1,3 @@
+ALTER TABLE topicos ADD COLUMN visualizacoes BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_topicos_ativo_visualizacoes_id ON topicos (ativo, visualizacoes, id);
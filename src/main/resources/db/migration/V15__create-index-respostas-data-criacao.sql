@@ -0,0 +1 @@
+CREATE INDEX idx_respostas_data_criacao ON respostas (data_criacao);
@@ -0,0 +1,15 @@
+-- A V9 trocou o UNIQUE (titulo, mensagem) por um índice comum; a unicidade volta a ser garantida
+-- pelo banco, agora sobre o conteúdo normalizado. Tópicos que só diferiam em caixa ou espaços
+-- ficam com o hash do mais antigo; os demais (e suas respostas) são mantidos com um hash próprio.
+UPDATE topicos t
+JOIN (
+    SELECT hash_conteudo, MIN(id) AS id
+    FROM topicos
+    GROUP BY hash_conteudo
+    HAVING COUNT(*) > 1
+) d ON d.hash_conteudo = t.hash_conteudo AND t.id > d.id
+SET t.hash_conteudo = SHA2(CONCAT(t.hash_conteudo, ':', t.id), 256);
+
+DROP INDEX idx_topicos_hash_conteudo ON topicos;
+
+CREATE UNIQUE INDEX uk_topicos_hash_conteudo ON topicos (hash_conteudo);
@@ -0,0 +1,10 @@
+CREATE TABLE refresh_tokens (
+    hash CHAR(64) NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    login VARCHAR(100) NOT NULL,
+    expira_em DATETIME NOT NULL,
+    PRIMARY KEY(hash),
+    FOREIGN KEY (usuario_id) REFERENCES usuarios(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_refresh_tokens_expira_em ON refresh_tokens (expira_em);
@@ -0,0 +1,7 @@
+CREATE TABLE tokens_revogados (
+    jti VARCHAR(36) NOT NULL,
+    expira_em DATETIME NOT NULL,
+    PRIMARY KEY(jti)
+);
+
+CREATE INDEX idx_tokens_revogados_expira_em ON tokens_revogados (expira_em);
@@ -0,0 +1 @@
+CREATE INDEX idx_topicos_ativo_data_criacao_id ON topicos (ativo, data_criacao, id);
@@ -0,0 +1 @@
+CREATE INDEX idx_topicos_ativo_curso_data_criacao_id ON topicos (ativo, curso, data_criacao, id);
@@ -0,0 +1,13 @@
+ALTER TABLE topicos ADD COLUMN hash_conteudo CHAR(64) NULL;
+
+UPDATE topicos
+SET hash_conteudo = SHA2(CONCAT(
+        TRIM(REGEXP_REPLACE(LOWER(titulo), '[[:space:]]+', ' ')),
+        CHAR(10 USING utf8mb4),
+        TRIM(REGEXP_REPLACE(LOWER(mensagem), '[[:space:]]+', ' '))), 256);
+
+ALTER TABLE topicos MODIFY hash_conteudo CHAR(64) NOT NULL;
+
+ALTER TABLE topicos DROP INDEX titulo;
+
+CREATE INDEX idx_topicos_hash_conteudo ON topicos (hash_conteudo);
@@ -0,0 +1,108 @@
+package com.forumhub.forumhub;
+
+import com.forumhub.forumhub.model.StatusTopico;
+import com.forumhub.forumhub.model.Topico;
+import com.forumhub.forumhub.model.Usuario;
+import com.forumhub.forumhub.repository.RespostaRepository;
+import com.forumhub.forumhub.repository.TopicoRepository;
+import com.forumhub.forumhub.repository.UsuarioRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+// Carga HTTP real (Tomcat + filtro JWT + MySQL) com muitos clientes simultâneos, comparando threads de
+// plataforma (pool padrão de 200 do Tomcat) com o perfil "virtual". O modo Throughput dá req/s e o
+// SampleTime dá os percentis (p0.99). Precisa do MySQL do perfil "test":
+// java -cp <classpath de teste> ...ThreadsVirtuaisBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(1000)
+public class ThreadsVirtuaisBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtuais;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private HttpRequest listagem;
+    private HttpRequest detalhe;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        var aplicacao = new SpringApplication(ForumhubApplication.class);
+        aplicacao.setAdditionalProfiles(virtuais ? new String[]{"test", "virtual"} : new String[]{"test"});
+        contexto = aplicacao.run("--spring.jpa.show-sql=false", "--server.port=0");
+
+        contexto.getBean(RespostaRepository.class).deleteAll();
+        var topicoRepository = contexto.getBean(TopicoRepository.class);
+        topicoRepository.deleteAll();
+        var usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        usuarioRepository.deleteAll();
+        usuarioRepository.save(new Usuario(null, "carga", contexto.getBean(PasswordEncoder.class).encode("123456")));
+
+        var topicos = new ArrayList<Topico>();
+        for (int i = 0; i < 2_000; i++) {
+            topicos.add(new Topico(null, "Tópico " + i, "Mensagem do tópico " + i, true,
+                    LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i), StatusTopico.NAO_RESPONDIDO, null,
+                    "autor" + i, i % 2 == 0 ? "Java" : "Spring Boot"));
+        }
+        topicoRepository.saveAll(topicos);
+
+        var base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        var login = cliente.send(HttpRequest.newBuilder(URI.create(base + "/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"login\":\"carga\",\"senha\":\"123456\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        String token = JsonPath.read(login.body(), "$.token");
+
+        listagem = HttpRequest.newBuilder(URI.create(base + "/topicos?curso=Java&page=5&size=20"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+        detalhe = HttpRequest.newBuilder(URI.create(base + "/topicos/" + topicos.get(topicos.size() / 2).getId()))
+                .header("Authorization", "Bearer " + token)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    // Listagem: consulta no banco a cada chamada, segura a thread da requisição durante o JDBC
+    @Benchmark
+    public int listar() throws IOException, InterruptedException {
+        return cliente.send(listagem, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Detalhe: servido pelo cache, mede o custo do caminho HTTP + filtro JWT sem banco
+    @Benchmark
+    public int detalhar() throws IOException, InterruptedException {
+        return cliente.send(detalhe, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ThreadsVirtuaisBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,144 @@
+package com.forumhub.forumhub;
+
+import com.forumhub.forumhub.model.StatusTopico;
+import com.forumhub.forumhub.model.Topico;
+import com.forumhub.forumhub.model.Usuario;
+import com.forumhub.forumhub.repository.RespostaRepository;
+import com.forumhub.forumhub.repository.TopicoRepository;
+import com.forumhub.forumhub.repository.UsuarioRepository;
+import com.jayway.jsonpath.JsonPath;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Pool com 2 conexões para forçar espera: se alguma espera acontecer dentro de um bloco synchronized
+// (filtro, driver, pool), a thread virtual fica presa à portadora e o JFR registra jdk.VirtualThreadPinned.
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.minimum-idle=2",
+        "spring.datasource.hikari.connection-timeout=10000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "virtual"})
+class ThreadsVirtuaisTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RespostaRepository respostaRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Topico topico;
+
+    @BeforeEach
+    void setUp() {
+        respostaRepository.deleteAll();
+        topicoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        usuarioRepository.save(new Usuario(null, "virtual.teste", passwordEncoder.encode("123456")));
+        topico = topicoRepository.save(new Topico(null, "Tópico Virtual", "Mensagem do tópico", true,
+                LocalDateTime.now(), StatusTopico.NAO_RESPONDIDO, null, "virtual.teste", "Spring Boot"));
+    }
+
+    @Test
+    @DisplayName("Caminhos principais (filtro JWT, listagem, detalhe, resposta) não devem fixar threads virtuais")
+    void pinning_cenario1() throws Exception {
+        var token = autenticar();
+
+        // Aquecimento fora da gravação: carga de classes e inicializações estáticas também fixam a thread
+        exercitar(token, 4);
+
+        var fixacoes = new CopyOnWriteArrayList<String>();
+        try (var gravacao = new RecordingStream()) {
+            gravacao.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            gravacao.onEvent("jdk.VirtualThreadPinned", evento -> fixacoes.add(descrever(evento)));
+            gravacao.startAsync();
+
+            exercitar(token, 64);
+
+            gravacao.stop();
+        }
+
+        assertThat(fixacoes).isEmpty();
+    }
+
+    private String autenticar() throws Exception {
+        var json = mvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"login\":\"virtual.teste\",\"senha\":\"123456\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(json, "$.token");
+    }
+
+    // Cada requisição roda numa thread virtual, como no Tomcat com spring.threads.virtual.enabled
+    private void exercitar(String token, int requisicoes) throws Exception {
+        var autorizacao = "Bearer " + token;
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var tarefas = new ArrayList<Future<?>>();
+            for (int i = 0; i < requisicoes; i++) {
+                var mensagem = "Resposta " + i;
+                tarefas.add(executor.submit(() -> {
+                    mvc.perform(get("/topicos").param("curso", "Spring Boot").header(HttpHeaders.AUTHORIZATION, autorizacao))
+                            .andExpect(status().isOk());
+                    mvc.perform(get("/topicos/" + topico.getId()).header(HttpHeaders.AUTHORIZATION, autorizacao))
+                            .andExpect(status().isOk());
+                    mvc.perform(post("/topicos/" + topico.getId() + "/respostas")
+                                    .header(HttpHeaders.AUTHORIZATION, autorizacao)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content("{\"mensagem\":\"" + mensagem + "\"}"))
+                            .andExpect(status().isCreated());
+                    mvc.perform(get("/topicos/" + topico.getId() + "/respostas").header(HttpHeaders.AUTHORIZATION, autorizacao))
+                            .andExpect(status().isOk());
+                    return null;
+                }));
+            }
+            for (var tarefa : tarefas) {
+                tarefa.get();
+            }
+        }
+    }
+
+    private static String descrever(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) {
+            return evento.getThread().getJavaName();
+        }
+        return evento.getStackTrace().getFrames().stream()
+                .limit(12)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .collect(Collectors.joining(" <- "));
+    }
+}
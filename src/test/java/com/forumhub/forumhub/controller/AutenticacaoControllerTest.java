@@ -1,22 +1,40 @@
 package com.forumhub.forumhub.controller;
 
 import com.forumhub.forumhub.dto.auth.DadosAutenticacao;
+import com.forumhub.forumhub.dto.auth.DadosRefreshToken;
+import com.forumhub.forumhub.infra.security.ExecutorSenhas;
+import com.forumhub.forumhub.infra.security.RefreshTokenService;
 import com.forumhub.forumhub.model.Usuario;
 import com.forumhub.forumhub.repository.UsuarioRepository;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.json.AutoConfigureJsonTesters;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.json.JacksonTester;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,12 +50,39 @@ class AutenticacaoControllerTest {
     @Autowired
     private JacksonTester<DadosAutenticacao> dadosAutenticacaoJson;
 
+    @Autowired
+    private JacksonTester<DadosRefreshToken> dadosRefreshTokenJson;
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ExecutorSenhas executorSenhas;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.security.senha.threads}")
+    private int threadsSenha;
+
+    @Value("${app.security.senha.fila}")
+    private int filaSenha;
+
+    @Value("${app.security.senha.bcrypt-cost}")
+    private int custoBCrypt;
+
     @BeforeEach
     void setup() {
         usuarioRepository.deleteAll();
@@ -75,4 +120,220 @@ class AutenticacaoControllerTest {
                 .andExpect(jsonPath("$.token").isString())
                 .andExpect(jsonPath("$.token").isNotEmpty());
     }
+
+    @Test
+    @DisplayName("Deve autenticar requisições usando apenas os claims do token JWT")
+    void efetuarLogin_cenario3() throws Exception {
+        var dadosAutenticacao = new DadosAutenticacao("ana.souza@voll.med", "123456");
+
+        var json = mvc.perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(dadosAutenticacaoJson.write(dadosAutenticacao).getJson())
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(json, "$.token");
+
+        mvc.perform(get("/usuarios/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.login").value("ana.souza@voll.med"));
+    }
+
+    @Test
+    @DisplayName("Deve refazer o hash da senha no login quando o custo salvo for diferente do configurado")
+    void efetuarLogin_cenario4_rehash() throws Exception {
+        var custoAntigo = custoBCrypt == 4 ? 5 : 4;
+        usuarioRepository.save(new Usuario(null, "custo.antigo@voll.med", new BCryptPasswordEncoder(custoAntigo).encode("123456")));
+        var dadosAutenticacao = new DadosAutenticacao("custo.antigo@voll.med", "123456");
+
+        mvc.perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(dadosAutenticacaoJson.write(dadosAutenticacao).getJson())
+                )
+                .andExpect(status().isOk());
+
+        var senha = usuarioRepository.findByLogin("custo.antigo@voll.med").orElseThrow().getSenha();
+        assertThat(senha).startsWith("$2a$%02d$".formatted(custoBCrypt));
+        assertThat(passwordEncoder.matches("123456", senha)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve retornar http 429 (Too Many Requests) com Retry-After quando o pool de senhas estiver cheio")
+    void efetuarLogin_cenario5_poolCheio() throws Exception {
+        var liberar = new CountDownLatch(1);
+        var emExecucao = new CountDownLatch(threadsSenha);
+        var operacao = executorSenhas.operacao("teste");
+        try (var ocupantes = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < threadsSenha + filaSenha; i++) {
+                ocupantes.submit(() -> executorSenhas.executar(operacao, () -> {
+                    emExecucao.countDown();
+                    try {
+                        return liberar.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }));
+            }
+            try {
+                assertThat(emExecucao.await(10, TimeUnit.SECONDS)).isTrue();
+                var fila = meterRegistry.get("forumhub.senha.fila").gauge();
+                var limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (fila.value() < filaSenha && System.nanoTime() < limite) {
+                    Thread.sleep(10);
+                }
+                assertThat(fila.value()).isEqualTo(filaSenha);
+
+                var dadosAutenticacao = new DadosAutenticacao("ana.souza@voll.med", "123456");
+                mvc.perform(
+                                post("/login")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(dadosAutenticacaoJson.write(dadosAutenticacao).getJson())
+                        )
+                        .andExpect(status().isTooManyRequests())
+                        .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+            } finally {
+                liberar.countDown();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve retornar http 200 (OK) e um novo token JWT para refresh token válido")
+    void renovarToken_cenario1() throws Exception {
+        var dadosAutenticacao = new DadosAutenticacao("ana.souza@voll.med", "123456");
+
+        var json = mvc.perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(dadosAutenticacaoJson.write(dadosAutenticacao).getJson())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refreshToken").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String refreshToken = JsonPath.read(json, "$.refreshToken");
+
+        var renovado = mvc.perform(
+                        post("/login/refresh")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(dadosRefreshTokenJson.write(new DadosRefreshToken(refreshToken)).getJson())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String novoRefreshToken = JsonPath.read(renovado, "$.refreshToken");
+        assertThat(novoRefreshToken).isNotEqualTo(refreshToken);
+
+        // O token usado foi revogado na rotação; o novo continua valendo
+        mvc.perform(
+                post("/login/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(dadosRefreshTokenJson.write(new DadosRefreshToken(refreshToken)).getJson())
+        ).andExpect(status().isForbidden());
+
+        mvc.perform(
+                        post("/login/refresh")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(dadosRefreshTokenJson.write(new DadosRefreshToken(novoRefreshToken)).getJson())
+                )
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Deve retornar http 403 (Forbidden) ao renovar o token de um usuário excluído")
+    void renovarToken_cenario3_usuarioExcluido() throws Exception {
+        var dadosAutenticacao = new DadosAutenticacao("ana.souza@voll.med", "123456");
+
+        var json = mvc.perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(dadosAutenticacaoJson.write(dadosAutenticacao).getJson())
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String refreshToken = JsonPath.read(json, "$.refreshToken");
+
+        usuarioRepository.delete(usuarioRepository.findByLogin("ana.souza@voll.med").orElseThrow());
+
+        mvc.perform(
+                post("/login/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(dadosRefreshTokenJson.write(new DadosRefreshToken(refreshToken)).getJson())
+        ).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Deve renovar sem ir ao banco e gravar a rotação no flush em lote")
+    void renovarToken_cenario4_semBancoNaRequisicao() throws Exception {
+        var dadosAutenticacao = new DadosAutenticacao("ana.souza@voll.med", "123456");
+
+        var json = mvc.perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(dadosAutenticacaoJson.write(dadosAutenticacao).getJson())
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String refreshToken = JsonPath.read(json, "$.refreshToken");
+
+        // A primeira renovação põe o usuário no cache de principals
+        var renovado = mvc.perform(
+                        post("/login/refresh")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(dadosRefreshTokenJson.write(new DadosRefreshToken(refreshToken)).getJson())
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String novoRefreshToken = JsonPath.read(renovado, "$.refreshToken");
+
+        var estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        mvc.perform(
+                        post("/login/refresh")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(dadosRefreshTokenJson.write(new DadosRefreshToken(novoRefreshToken)).getJson())
+                )
+                .andExpect(status().isOk());
+        assertThat(estatisticas.getPrepareStatementCount()).isZero();
+
+        // Três emissões e duas rotações: depois do flush só o último token fica na tabela
+        refreshTokenService.gravar();
+        var usuarioId = usuarioRepository.findByLogin("ana.souza@voll.med").orElseThrow().getId();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens WHERE usuario_id = ?", Long.class, usuarioId))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve retornar http 403 (Forbidden) para refresh token desconhecido")
+    void renovarToken_cenario2() throws Exception {
+        mvc.perform(
+                post("/login/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(dadosRefreshTokenJson.write(new DadosRefreshToken("token-inexistente")).getJson())
+        ).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Deve retornar http 403 (Forbidden) ao usar um token JWT revogado no logout")
+    void efetuarLogout_cenario1() throws Exception {
+        var dadosAutenticacao = new DadosAutenticacao("ana.souza@voll.med", "123456");
+
+        var json = mvc.perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(dadosAutenticacaoJson.write(dadosAutenticacao).getJson())
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(json, "$.token");
+
+        mvc.perform(post("/logout").header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        mvc.perform(get("/usuarios/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
 }
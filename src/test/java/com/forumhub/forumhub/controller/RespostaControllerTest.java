@@ -2,6 +2,9 @@ package com.forumhub.forumhub.controller;
 
 import com.forumhub.forumhub.dto.resposta.DadosAtualizacaoResposta;
 import com.forumhub.forumhub.dto.resposta.DadosCadastroResposta;
+import com.forumhub.forumhub.infra.evento.HubRespostas;
+import com.forumhub.forumhub.infra.paginacao.Cursor;
+import com.forumhub.forumhub.infra.topico.ReconciliacaoAtividadeTopico;
 import com.forumhub.forumhub.model.Resposta;
 import com.forumhub.forumhub.model.StatusTopico;
 import com.forumhub.forumhub.model.Topico;
@@ -10,6 +13,8 @@ import com.forumhub.forumhub.repository.RespostaRepository;
 import com.forumhub.forumhub.repository.TopicoRepository;
 import com.forumhub.forumhub.repository.UsuarioRepository;
 import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -27,11 +32,17 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.hamcrest.Matchers.hasSize;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -58,6 +69,15 @@ class RespostaControllerTest {
     @Autowired
     private RespostaRepository respostaRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReconciliacaoAtividadeTopico reconciliacaoAtividade;
+
+    @Autowired
+    private HubRespostas hubRespostas;
+
     private Usuario autor;
     private Topico topico;
 
@@ -135,6 +155,168 @@ class RespostaControllerTest {
                 .andExpect(jsonPath("$", hasSize(2)));
     }
 
+    @Test
+    @DisplayName("GET - Deve retornar http 304 enquanto as respostas não mudarem")
+    void listarRespostas_cenario3_naoModificado() throws Exception {
+
+        // Arrange
+        var autorResposta = usuarioRepository.save(new Usuario(null, "comentarista", "123"));
+        respostaRepository.save(new Resposta(null, "Primeira resposta", this.topico, LocalDateTime.now(), autorResposta, false));
+
+        var etag = mvc.perform(get("/topicos/" + this.topico.getId() + "/respostas")
+                        .with(user(this.autor)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mvc.perform(get("/topicos/" + this.topico.getId() + "/respostas")
+                        .header("If-None-Match", etag)
+                        .with(user(this.autor)))
+                .andExpect(status().isNotModified());
+
+        // Pela API: o ETag vem da versão do tópico, que as escritas de resposta incrementam
+        mvc.perform(post("/topicos/" + this.topico.getId() + "/respostas")
+                        .with(user(autorResposta))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(dadosCadastroRespostaJson.write(new DadosCadastroResposta("Segunda resposta")).getJson()))
+                .andExpect(status().isCreated());
+
+        mvc.perform(get("/topicos/" + this.topico.getId() + "/respostas")
+                        .header("If-None-Match", etag)
+                        .with(user(this.autor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    @DisplayName("GET - Editar uma resposta deve invalidar o ETag da coleção")
+    void listarRespostas_cenario6_edicaoMudaEtag() throws Exception {
+
+        // Arrange
+        var autorResposta = usuarioRepository.save(new Usuario(null, "comentarista", "123"));
+        var resposta = respostaRepository.save(new Resposta(null, "Primeira resposta", this.topico, LocalDateTime.now(), autorResposta, false));
+
+        var etag = mvc.perform(get("/topicos/" + this.topico.getId() + "/respostas")
+                        .with(user(this.autor)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act
+        mvc.perform(put("/topicos/" + this.topico.getId() + "/respostas/" + resposta.getId())
+                        .with(user(autorResposta))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(dadosAtualizacaoRespostaJson.write(new DadosAtualizacaoResposta("Resposta editada")).getJson()))
+                .andExpect(status().isOk());
+
+        // Assert
+        mvc.perform(get("/topicos/" + this.topico.getId() + "/respostas")
+                        .header("If-None-Match", etag)
+                        .with(user(this.autor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].mensagem").value("Resposta editada"));
+    }
+
+    @Test
+    @DisplayName("GET - Deve listar respostas e autores com número fixo de consultas e paginar por cursor")
+    void listarRespostas_cenario4_consultasEPaginacao() throws Exception {
+
+        // Arrange
+        var respostas = new ArrayList<Resposta>();
+        var inicio = LocalDateTime.of(2024, 1, 1, 10, 0);
+        for (int i = 0; i < 30; i++) {
+            var autorResposta = usuarioRepository.save(new Usuario(null, "comentarista" + i, "123"));
+            respostas.add(new Resposta(null, "Resposta " + i, this.topico, inicio.plusMinutes(i), autorResposta, false));
+        }
+        respostaRepository.saveAll(respostas);
+
+        var estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        // Act & Assert
+        var link = mvc.perform(get("/topicos/" + this.topico.getId() + "/respostas")
+                        .param("size", "20")
+                        .with(user(this.autor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(20)))
+                .andExpect(jsonPath("$[0].nomeAutor").value("comentarista0"))
+                .andExpect(jsonPath("$[19].nomeAutor").value("comentarista19"))
+                .andReturn().getResponse().getHeader("Link");
+
+        // Uma consulta de versão/existência e uma da página, independente da quantidade de autores
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(2);
+
+        assertThat(link).contains("rel=\"next\"");
+        var proximaPagina = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        mvc.perform(get(proximaPagina).with(user(this.autor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(10)))
+                .andExpect(jsonPath("$[0].nomeAutor").value("comentarista20"))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    @DisplayName("GET - Deve retornar http 404 (Not found) para tópico inexistente")
+    void listarRespostas_cenario5_topicoInexistente() throws Exception {
+        mvc.perform(get("/topicos/999999/respostas").with(user(this.autor)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /stream - Deve reenviar o que veio depois do Last-Event-ID e depois entregar respostas novas")
+    void acompanharRespostas_cenario1() throws Exception {
+        var inicio = LocalDateTime.of(2024, 1, 1, 10, 0);
+        var primeira = respostaRepository.save(new Resposta(null, "Resposta 0", topico, inicio, autor, false));
+        respostaRepository.save(new Resposta(null, "Resposta 1", topico, inicio.plusMinutes(1), autor, false));
+        var ultima = respostaRepository.save(new Resposta(null, "Resposta 2", topico, inicio.plusMinutes(2), autor, false));
+        var assinantesAntes = hubRespostas.totalAssinantes();
+
+        var resultado = mvc.perform(get("/topicos/" + topico.getId() + "/respostas/stream")
+                        .with(user(this.autor))
+                        .header("Last-Event-ID", new Cursor(primeira.getDataCriacao(), primeira.getId()).codificar()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var resposta = resultado.getResponse();
+        assertThat(resposta.getContentAsString())
+                .doesNotContain("Resposta 0")
+                .contains("Resposta 1", "Resposta 2")
+                .contains("id:" + new Cursor(ultima.getDataCriacao(), ultima.getId()).codificar());
+
+        mvc.perform(post("/topicos/" + topico.getId() + "/respostas")
+                        .with(user(this.autor))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(dadosCadastroRespostaJson.write(new DadosCadastroResposta("Resposta ao vivo")).getJson()))
+                .andExpect(status().isCreated());
+
+        // A entrega é assíncrona (thread virtual do assinante)
+        var limite = System.currentTimeMillis() + 5_000;
+        while (!resposta.getContentAsString().contains("Resposta ao vivo") && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+        }
+        assertThat(resposta.getContentAsString()).contains("event:resposta", "Resposta ao vivo");
+
+        // Fecha a conexão como o container faria: o assinante não pode sobrar no contexto compartilhado
+        resultado.getRequest().getAsyncContext().complete();
+        assertThat(hubRespostas.totalAssinantes()).isEqualTo(assinantesAntes);
+    }
+
+    @Test
+    @DisplayName("GET /stream - Deve retornar http 404 (Not found) para tópico inexistente")
+    void acompanharRespostas_cenario2_topicoInexistente() throws Exception {
+        mvc.perform(get("/topicos/999999/respostas/stream").with(user(this.autor)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /stream - Deve retornar http 404 (Not found) para tópico excluído")
+    void acompanharRespostas_cenario3_topicoExcluido() throws Exception {
+        topico.excluir();
+        topicoRepository.save(topico);
+
+        mvc.perform(get("/topicos/" + topico.getId() + "/respostas/stream").with(user(this.autor)))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("GET - Deve retornar http 200 (OK)")
     void listarRespostas_cenario2() throws Exception {
@@ -221,4 +403,175 @@ class RespostaControllerTest {
                         .with(user(this.autor))
         ).andExpect(status().isNoContent());
     }
+
+    @Test
+    @DisplayName("POST/DELETE - Deve manter total de respostas, última atividade e status do tópico")
+    void contadoresDoTopico_cenario1() throws Exception {
+        // Arrange
+        var autorResposta = usuarioRepository.save(new Usuario(null, "contador", "123"));
+        var dados = new DadosCadastroResposta("Resposta que conta.");
+
+        // Act
+        var json = mvc.perform(post("/topicos/" + topico.getId() + "/respostas")
+                        .with(user(autorResposta))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(dadosCadastroRespostaJson.write(dados).getJson()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Number idResposta = JsonPath.read(json, "$.id");
+
+        // Assert
+        var comResposta = topicoRepository.findById(topico.getId()).orElseThrow();
+        assertThat(comResposta.getTotalRespostas()).isEqualTo(1);
+        assertThat(comResposta.getStatus()).isEqualTo(StatusTopico.NAO_SOLUCIONADO);
+        assertThat(comResposta.getDataUltimaAtividade()).isAfterOrEqualTo(topico.getDataCriacao().withNano(0));
+
+        mvc.perform(delete("/topicos/{idTopico}/respostas/{idResposta}", topico.getId(), idResposta.longValue())
+                        .with(user(autorResposta)))
+                .andExpect(status().isNoContent());
+
+        var semResposta = topicoRepository.findById(topico.getId()).orElseThrow();
+        assertThat(semResposta.getTotalRespostas()).isZero();
+        assertThat(semResposta.getStatus()).isEqualTo(StatusTopico.NAO_RESPONDIDO);
+    }
+
+    @Test
+    @DisplayName("Reconciliação - Deve corrigir contadores de respostas gravadas sem passar pelo controller")
+    void reconciliacao_cenario1() {
+        // Arrange
+        var autorResposta = usuarioRepository.save(new Usuario(null, "importador", "123"));
+        respostaRepository.save(new Resposta(null, "Resposta 1", this.topico, LocalDateTime.now(), autorResposta, false));
+        var solucao = respostaRepository.save(new Resposta(null, "Resposta 2", this.topico, LocalDateTime.now(), autorResposta, true));
+
+        // Act
+        var corrigidos = reconciliacaoAtividade.reconciliar();
+
+        // Assert
+        assertThat(corrigidos).isEqualTo(1);
+        var reconciliado = topicoRepository.findById(topico.getId()).orElseThrow();
+        assertThat(reconciliado.getTotalRespostas()).isEqualTo(2);
+        assertThat(reconciliado.getIdSolucao()).isEqualTo(solucao.getId());
+        assertThat(reconciliado.getStatus()).isEqualTo(StatusTopico.SOLUCIONADO);
+        assertThat(reconciliacaoAtividade.reconciliar()).isZero();
+    }
+
+    @Test
+    @DisplayName("Reconciliação - Deve tirar de SOLUCIONADO o tópico sem resposta de solução")
+    void reconciliacao_cenario2_solucaoRemovida() {
+        // Arrange
+        var autorResposta = usuarioRepository.save(new Usuario(null, "importador", "123"));
+        var comResposta = topicoRepository.save(new Topico(null, "Tópico com resposta", "Mensagem", true, LocalDateTime.now(), StatusTopico.SOLUCIONADO, null, autor.getUsername(), "Spring Boot"));
+        respostaRepository.save(new Resposta(null, "Resposta 1", comResposta, LocalDateTime.now(), autorResposta, false));
+        // Contadores já batem: só o status está errado
+        var semRespostas = topicoRepository.save(new Topico(null, "Tópico sem respostas", "Mensagem", true, LocalDateTime.now(), StatusTopico.SOLUCIONADO, null, autor.getUsername(), "Spring Boot"));
+
+        // Act
+        var corrigidos = reconciliacaoAtividade.reconciliar();
+
+        // Assert
+        assertThat(corrigidos).isEqualTo(2);
+        var reconciliado = topicoRepository.findById(comResposta.getId()).orElseThrow();
+        assertThat(reconciliado.getStatus()).isEqualTo(StatusTopico.NAO_SOLUCIONADO);
+        assertThat(reconciliado.getTotalRespostas()).isEqualTo(1);
+        assertThat(reconciliado.getIdSolucao()).isNull();
+        assertThat(topicoRepository.findById(semRespostas.getId()).orElseThrow().getStatus()).isEqualTo(StatusTopico.NAO_RESPONDIDO);
+        assertThat(reconciliacaoAtividade.reconciliar()).isZero();
+    }
+
+    @Test
+    @DisplayName("Reconciliação - Deve mover para SOLUCIONADO o tópico com resposta de solução e manter FECHADO")
+    void reconciliacao_cenario3_solucaoExistente() {
+        // Arrange
+        var autorResposta = usuarioRepository.save(new Usuario(null, "importador", "123"));
+        var fechado = topicoRepository.save(new Topico(null, "Tópico fechado", "Mensagem", true, LocalDateTime.now(), StatusTopico.FECHADO, null, autor.getUsername(), "Spring Boot"));
+        respostaRepository.save(new Resposta(null, "Resposta 1", this.topico, LocalDateTime.now(), autorResposta, true));
+        respostaRepository.save(new Resposta(null, "Resposta 2", fechado, LocalDateTime.now(), autorResposta, true));
+
+        // Act
+        reconciliacaoAtividade.reconciliar();
+
+        // Assert
+        assertThat(topicoRepository.findById(topico.getId()).orElseThrow().getStatus()).isEqualTo(StatusTopico.SOLUCIONADO);
+        assertThat(topicoRepository.findById(fechado.getId()).orElseThrow().getStatus()).isEqualTo(StatusTopico.FECHADO);
+        assertThat(reconciliacaoAtividade.reconciliar()).isZero();
+    }
+
+    @Test
+    @DisplayName("POST solucao - Deve aceitar a solução e mover o tópico para SOLUCIONADO")
+    void aceitarSolucao_cenario1() throws Exception {
+        // Arrange
+        var autorResposta = usuarioRepository.save(new Usuario(null, "solucionador", "123"));
+        var primeira = respostaRepository.save(new Resposta(null, "Primeira", this.topico, LocalDateTime.now(), autorResposta, false));
+        var segunda = respostaRepository.save(new Resposta(null, "Segunda", this.topico, LocalDateTime.now(), autorResposta, false));
+
+        // Act & Assert
+        mvc.perform(post("/topicos/{idTopico}/respostas/{idResposta}/solucao", topico.getId(), primeira.getId())
+                        .with(user(autorResposta)))
+                .andExpect(status().isBadRequest());
+
+        mvc.perform(post("/topicos/{idTopico}/respostas/{idResposta}/solucao", topico.getId(), primeira.getId())
+                        .with(user(this.autor)))
+                .andExpect(status().isNoContent());
+        mvc.perform(post("/topicos/{idTopico}/respostas/{idResposta}/solucao", topico.getId(), segunda.getId())
+                        .with(user(this.autor)))
+                .andExpect(status().isNoContent());
+
+        var solucionado = topicoRepository.findById(topico.getId()).orElseThrow();
+        assertThat(solucionado.getStatus()).isEqualTo(StatusTopico.SOLUCIONADO);
+        assertThat(solucionado.getIdSolucao()).isEqualTo(segunda.getId());
+        assertThat(respostaRepository.findById(primeira.getId()).orElseThrow().getSolucao()).isFalse();
+        assertThat(respostaRepository.findById(segunda.getId()).orElseThrow().getSolucao()).isTrue();
+    }
+
+    @Test
+    @DisplayName("POST solucao - Aceites concorrentes no mesmo tópico devem terminar com exatamente uma solução")
+    void aceitarSolucao_cenario2_concorrencia() throws Exception {
+        // Arrange
+        var autorResposta = usuarioRepository.save(new Usuario(null, "concorrente", "123"));
+        var respostas = new ArrayList<Resposta>();
+        for (int i = 0; i < 10; i++) {
+            respostas.add(respostaRepository.save(new Resposta(null, "Resposta " + i, this.topico, LocalDateTime.now(), autorResposta, false)));
+        }
+
+        var threads = 16;
+        var tentativasPorThread = 10;
+        var largada = new CountDownLatch(1);
+        var resultados = new ArrayList<Future<Integer>>();
+
+        // Act
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                var deslocamento = t;
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    var falhas = 0;
+                    for (int i = 0; i < tentativasPorThread; i++) {
+                        var resposta = respostas.get((deslocamento + i) % respostas.size());
+                        var status = mvc.perform(post("/topicos/{idTopico}/respostas/{idResposta}/solucao", topico.getId(), resposta.getId())
+                                        .with(user(this.autor)))
+                                .andReturn().getResponse().getStatus();
+                        if (status != 204) {
+                            falhas++;
+                        }
+                    }
+                    return falhas;
+                }));
+            }
+            largada.countDown();
+        }
+
+        // Assert
+        for (var resultado : resultados) {
+            assertThat(resultado.get()).isZero();
+        }
+
+        var solucoes = respostaRepository.findAllById(respostas.stream().map(Resposta::getId).toList()).stream()
+                .filter(Resposta::getSolucao)
+                .toList();
+        assertThat(solucoes).hasSize(1);
+
+        var solucionado = topicoRepository.findById(topico.getId()).orElseThrow();
+        assertThat(solucionado.getStatus()).isEqualTo(StatusTopico.SOLUCIONADO);
+        assertThat(solucionado.getIdSolucao()).isEqualTo(solucoes.get(0).getId());
+    }
 }
@@ -1,5 +1,9 @@
 package com.forumhub.forumhub.controller;
 
+import com.forumhub.forumhub.infra.topico.ContadorVisualizacoes;
+import com.forumhub.forumhub.infra.topico.TendenciasTopicos;
+import com.forumhub.forumhub.model.Resposta;
+import com.forumhub.forumhub.repository.RespostaRepository;
 import com.forumhub.forumhub.repository.UsuarioRepository;
 import com.forumhub.forumhub.dto.topico.DadosAtualizacaoTopico;
 import com.forumhub.forumhub.dto.topico.DadosCadastroTopico;
@@ -7,6 +11,9 @@ import com.forumhub.forumhub.model.StatusTopico;
 import com.forumhub.forumhub.model.Usuario;
 import com.forumhub.forumhub.model.Topico;
 import com.forumhub.forumhub.repository.TopicoRepository;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,12 +24,20 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.TestExecutionEvent;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -48,8 +63,21 @@ class TopicoControllerTest {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private RespostaRepository respostaRepository;
+
+    @Autowired
+    private ContadorVisualizacoes contadorVisualizacoes;
+
+    @Autowired
+    private TendenciasTopicos tendenciasTopicos;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void cleanup() {
+        respostaRepository.deleteAll();
         topicoRepository.deleteAll();
         usuarioRepository.deleteAll();
 
@@ -105,8 +133,111 @@ class TopicoControllerTest {
         assertThat(response.getStatus()).isEqualTo(HttpStatus.CONFLICT.value());
     }
 
+    @Test
+    @DisplayName("POST(/topicos) - Deve retornar http 409 (Conflict) para tópico que só difere em maiúsculas e espaços")
+    @WithMockUser
+    void cadastrar_cenario6_duplicadoNormalizado() throws Exception {
+        topicoRepository.save(new Topico(new DadosCadastroTopico("Como usar Streams", "Dúvida sobre o map", "Teste1", "Java")));
+        var variacao = new DadosCadastroTopico("  COMO usar   streams ", "dúvida SOBRE o\tmap", "Teste2", "Java");
+
+        mvc.perform(post("/topicos").contentType(MediaType.APPLICATION_JSON).content(dadosCadastroJson.write(variacao).getJson()))
+                .andExpect(status().isConflict());
+
+        assertThat(topicoRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("POST(/topicos) - Deve retornar tópicos semelhantes ao cadastrar uma pergunta quase repetida")
+    @WithMockUser
+    void cadastrar_cenario5_topicoSemelhante() throws Exception {
+        var original = new DadosCadastroTopico("Como configurar o Spring Security com JWT",
+                "Estou com erro 403 ao chamar a API usando token JWT no Spring Security", "Aluno1", "Spring Boot");
+        var repetido = new DadosCadastroTopico("Como configurar o Spring Security com JWT?",
+                "Estou com erro 403 ao chamar a API usando um token JWT no Spring Security", "Aluno2", "Spring Boot");
+
+        mvc.perform(post("/topicos").contentType(MediaType.APPLICATION_JSON).content(dadosCadastroJson.write(original).getJson()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.similares").isEmpty());
+
+        mvc.perform(post("/topicos").contentType(MediaType.APPLICATION_JSON).content(dadosCadastroJson.write(repetido).getJson()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.similares[0].titulo").value(original.titulo()));
+    }
+
     // Testes (get) -> /topicos/{id}
 
+    @Test
+    @DisplayName("POST(/topicos/importacao) - Deve importar as linhas válidas e relatar duplicadas e inválidas")
+    @WithMockUser(roles = "ADMIN")
+    void importar_cenario1() throws Exception {
+        var ndjson = """
+                {"titulo":"Erro no Flyway","mensagem":"Migration falha ao subir","autor":"Aluno1","curso":"Spring Boot","dataCriacao":"2024-03-01T10:00:00","respostas":[{"mensagem":"Rode o repair","autor":"teste","dataCriacao":"2024-03-01T11:00:00","solucao":true},{"mensagem":"Confira a versão","autor":"teste.outro","dataCriacao":"2024-03-01T12:00:00"}]}
+                {"titulo":"erro  no flyway","mensagem":"Migration falha ao subir","autor":"Aluno2","curso":"Spring Boot"}
+
+                {"titulo":"","mensagem":"Sem título","autor":"Aluno3","curso":"Java"}
+                {"titulo":"JSON quebrado"
+                {"titulo":"Dúvida de JPA","mensagem":"Lazy loading","autor":"Aluno4","curso":"Java","respostas":[{"mensagem":"Use fetch join","autor":"inexistente"}]}
+                {"titulo":"Dúvida de Lombok","mensagem":"Getter não gerado","autor":"Aluno5","curso":"Java"}
+                """;
+
+        mvc.perform(post("/topicos/importacao").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.linhasLidas").value(6))
+                .andExpect(jsonPath("$.topicosImportados").value(2))
+                .andExpect(jsonPath("$.respostasImportadas").value(2))
+                .andExpect(jsonPath("$.duplicados").value(1))
+                .andExpect(jsonPath("$.totalErros").value(3))
+                .andExpect(jsonPath("$.erros[0].linha").value(4))
+                .andExpect(jsonPath("$.erros[1].linha").value(5))
+                .andExpect(jsonPath("$.erros[2].linha").value(6));
+
+        var topicos = topicoRepository.findAll();
+        assertThat(topicos).extracting(Topico::getTitulo).containsExactlyInAnyOrder("Erro no Flyway", "Dúvida de Lombok");
+
+        var importado = topicos.stream().filter(topico -> topico.getTitulo().equals("Erro no Flyway")).findFirst().orElseThrow();
+        assertThat(importado.getStatus()).isEqualTo(StatusTopico.SOLUCIONADO);
+        assertThat(importado.getTotalRespostas()).isEqualTo(2);
+        assertThat(importado.getDataUltimaAtividade()).isEqualTo(LocalDateTime.of(2024, 3, 1, 12, 0));
+        assertThat(importado.getIdSolucao()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("POST(/topicos/importacao) - Linha rejeitada pelo banco deve falhar sozinha, sem levar o lote junto")
+    @WithMockUser(roles = "ADMIN")
+    void importar_cenario3_linhaRejeitadaPeloBanco() throws Exception {
+        // Ano 10000 passa na validação do DTO, mas não cabe num DATETIME do MySQL
+        var ndjson = """
+                {"titulo":"Antes da falha","mensagem":"Linha boa","autor":"Aluno1","curso":"Java"}
+                {"titulo":"Data impossível","mensagem":"Linha ruim","autor":"Aluno2","curso":"Java","dataCriacao":"+10000-01-01T00:00:00"}
+                {"titulo":"Depois da falha","mensagem":"Linha boa","autor":"Aluno3","curso":"Java"}
+                """;
+
+        mvc.perform(post("/topicos/importacao").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.linhasLidas").value(3))
+                .andExpect(jsonPath("$.topicosImportados").value(2))
+                .andExpect(jsonPath("$.totalErros").value(1))
+                .andExpect(jsonPath("$.erros[0].linha").value(2));
+
+        assertThat(topicoRepository.findAll()).extracting(Topico::getTitulo)
+                .containsExactlyInAnyOrder("Antes da falha", "Depois da falha");
+    }
+
+    @Test
+    @DisplayName("POST(/topicos/importacao) - Deve retornar 403 para usuário sem perfil ADMIN")
+    @WithMockUser
+    void importar_cenario2_usuarioComum() throws Exception {
+        var ndjson = """
+                {"titulo":"Importação negada","mensagem":"Usuário comum","autor":"Aluno1","curso":"Java","respostas":[{"mensagem":"Resposta em nome de outro","autor":"teste"}]}
+                """;
+
+        mvc.perform(post("/topicos/importacao").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isForbidden());
+
+        assertThat(topicoRepository.count()).isZero();
+        assertThat(respostaRepository.count()).isZero();
+    }
+
     @Test
     @DisplayName("GET /topicos/{id} - Deveria retornar 200 e detalhar o tópico para ID existente e ativo")
     @WithMockUser
@@ -118,6 +249,78 @@ class TopicoControllerTest {
                 .andExpect(jsonPath("$.titulo").value(topico.getTitulo()));
     }
 
+    @Test
+    @DisplayName("GET /topicos/{id} - Não deveria servir o detalhe em cache depois que o tópico é alterado ou excluído")
+    @WithUserDetails(value = "teste", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void detalhar_cenario3_cacheInvalidado() throws Exception {
+        var topico = topicoRepository.save(new Topico(new DadosCadastroTopico("Título em cache", "Mensagem", "teste", "Java")));
+
+        mvc.perform(get("/topicos/" + topico.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value("Título em cache"));
+
+        var dadosAtualizacao = new DadosAtualizacaoTopico("Título novo", null, null);
+        mvc.perform(put("/topicos/" + topico.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(dadosAtualizacaoJson.write(dadosAtualizacao).getJson()))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/topicos/" + topico.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value("Título novo"));
+
+        mvc.perform(delete("/topicos/" + topico.getId())).andExpect(status().isNoContent());
+        mvc.perform(get("/topicos/" + topico.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /topicos/{id} - Deveria retornar 304 quando o If-None-Match bate com a versão atual")
+    @WithMockUser
+    void detalhar_cenario4_naoModificado() throws Exception {
+        var topico = criarTopicoPadraoNoBanco();
+
+        var etag = mvc.perform(get("/topicos/" + topico.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotNull();
+
+        mvc.perform(get("/topicos/" + topico.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // A revalidação com 304 não conta como visualização
+        contadorVisualizacoes.gravar();
+        assertThat(topicoRepository.findById(topico.getId()).orElseThrow().getVisualizacoes()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("GET /topicos/{id}?include=respostas - Deveria trazer tópico, primeira página de respostas, total e solução")
+    @WithMockUser
+    void detalhar_cenario5_comRespostas() throws Exception {
+        var topico = criarTopicoPadraoNoBanco();
+        var autorResposta = usuarioRepository.findByLogin("teste").orElseThrow();
+        var inicio = LocalDateTime.of(2024, 1, 1, 10, 0);
+        for (int i = 0; i < 3; i++) {
+            respostaRepository.save(new Resposta(null, "Resposta " + i, topico, inicio.plusMinutes(i), autorResposta, i == 2));
+        }
+
+        var etag = mvc.perform(get("/topicos/" + topico.getId())
+                        .param("include", "respostas")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value(topico.getTitulo()))
+                .andExpect(jsonPath("$.totalRespostas").value(3))
+                .andExpect(jsonPath("$.respostas.content.length()").value(2))
+                .andExpect(jsonPath("$.respostas.proximoCursor").isNotEmpty())
+                .andExpect(jsonPath("$.solucao.mensagem").value("Resposta 2"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/topicos/" + topico.getId())
+                        .param("include", "respostas")
+                        .param("size", "2")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     @DisplayName("GET /topicos/{id} - Deveria retornar 404 para ID que não existe")
     @WithMockUser
@@ -144,6 +347,184 @@ class TopicoControllerTest {
                 .andExpect(jsonPath("$.content[0].titulo").value("Tópico 1"));
     }
 
+    @Test
+    @DisplayName("GET /topicos?sort=visualizacoes,desc - Deveria ordenar pelos mais vistos depois do flush")
+    @WithMockUser
+    void listar_cenario4_maisVistos() throws Exception {
+        var poucoVisto = topicoRepository.save(new Topico(new DadosCadastroTopico("Pouco visto", "...", "Autor A", "Curso X")));
+        var maisVisto = topicoRepository.save(new Topico(new DadosCadastroTopico("Mais visto", "...", "Autor B", "Curso X")));
+
+        mvc.perform(get("/topicos/" + poucoVisto.getId())).andExpect(status().isOk());
+        for (int i = 0; i < 3; i++) {
+            mvc.perform(get("/topicos/" + maisVisto.getId())).andExpect(status().isOk());
+        }
+        contadorVisualizacoes.gravar();
+
+        mvc.perform(get("/topicos").param("sort", "visualizacoes,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].titulo").value("Mais visto"))
+                .andExpect(jsonPath("$.content[0].visualizacoes").value(3))
+                .andExpect(jsonPath("$.content[1].visualizacoes").value(1));
+
+        // O flush não muda a versão: o ETag do detalhe continua válido
+        assertThat(topicoRepository.findById(maisVisto.getId()).orElseThrow().getVersao()).isEqualTo(maisVisto.getVersao());
+    }
+
+    @Test
+    @DisplayName("Visualizações - Flushes concorrentes com os registros não devem perder incrementos")
+    void gravarVisualizacoes_cenario1_concorrencia() throws Exception {
+        var topico = topicoRepository.save(new Topico(new DadosCadastroTopico("Muito visto", "...", "Autor A", "Curso X")));
+        var threads = 8;
+        var registrosPorThread = 20_000;
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var tarefas = new ArrayList<Future<?>>();
+            for (int i = 0; i < threads; i++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int j = 0; j < registrosPorThread; j++) {
+                        contadorVisualizacoes.registrar(topico.getId());
+                    }
+                }));
+            }
+            // Flush em paralelo: cada volta pode tirar o acumulador do mapa enquanto os registros chegam
+            while (tarefas.stream().anyMatch(tarefa -> !tarefa.isDone())) {
+                contadorVisualizacoes.gravar();
+            }
+            for (var tarefa : tarefas) {
+                tarefa.get();
+            }
+        }
+        contadorVisualizacoes.gravar();
+
+        assertThat(topicoRepository.findById(topico.getId()).orElseThrow().getVisualizacoes())
+                .isEqualTo((long) threads * registrosPorThread);
+    }
+
+    @Test
+    @DisplayName("GET /topicos?after= - Deveria paginar por cursor sem contar o total")
+    @WithMockUser
+    void listarPorCursor_cenario1() throws Exception {
+        // Arrange
+        topicoRepository.save(new Topico(new DadosCadastroTopico("Tópico 1", "...", "Autor A", "Curso X")));
+        topicoRepository.save(new Topico(new DadosCadastroTopico("Tópico 2", "...", "Autor B", "Curso X")));
+        topicoRepository.save(new Topico(new DadosCadastroTopico("Tópico 3", "...", "Autor C", "Curso X")));
+
+        // Act & Assert
+        var json = mvc.perform(get("/topicos")
+                        .param("after", "")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.proximoCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(json, "$.proximoCursor");
+
+        mvc.perform(get("/topicos")
+                        .param("after", cursor)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].titulo").value("Tópico 3"))
+                .andExpect(jsonPath("$.proximoCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /topicos/exportacao - Deveria exportar em NDJSON os tópicos filtrados com as respostas")
+    @WithMockUser
+    void exportar_cenario1_ndjson() throws Exception {
+        var topicoJava = topicoRepository.save(new Topico(new DadosCadastroTopico("Tópico Java", "...", "Autor A", "Java")));
+        var semRespostas = topicoRepository.save(new Topico(new DadosCadastroTopico("Outro de Java", "...", "Autor B", "Java")));
+        topicoRepository.save(new Topico(new DadosCadastroTopico("Tópico Spring", "...", "Autor C", "Spring Boot")));
+        var autorResposta = usuarioRepository.findByLogin("teste").orElseThrow();
+        var inicio = LocalDateTime.of(2024, 1, 1, 10, 0);
+        respostaRepository.save(new Resposta(null, "Primeira", topicoJava, inicio, autorResposta, false));
+        respostaRepository.save(new Resposta(null, "Segunda", topicoJava, inicio.plusMinutes(1), autorResposta, true));
+
+        var resposta = mvc.perform(get("/topicos/exportacao")
+                        .param("curso", "Java")
+                        .param("respostas", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertThat(resposta.getContentType()).startsWith("application/x-ndjson");
+        var linhas = resposta.getContentAsString().split("\n");
+        assertThat(linhas).hasSize(2);
+        assertThat((Integer) JsonPath.read(linhas[0], "$.id")).isEqualTo(topicoJava.getId().intValue());
+        assertThat((String) JsonPath.read(linhas[0], "$.respostas[0].mensagem")).isEqualTo("Primeira");
+        assertThat((String) JsonPath.read(linhas[0], "$.respostas[1].autor")).isEqualTo("teste");
+        assertThat((Boolean) JsonPath.read(linhas[0], "$.respostas[1].solucao")).isTrue();
+        assertThat((Integer) JsonPath.read(linhas[1], "$.id")).isEqualTo(semRespostas.getId().intValue());
+        assertThat((List<?>) JsonPath.read(linhas[1], "$.respostas")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("GET /topicos/exportacao?formato=csv - Deveria exportar em CSV escapando vírgulas e aspas")
+    @WithMockUser
+    void exportar_cenario2_csv() throws Exception {
+        topicoRepository.save(new Topico(new DadosCadastroTopico("Vírgula, \"aspas\"", "...", "Autor A", "Java")));
+
+        var csv = mvc.perform(get("/topicos/exportacao").param("formato", "csv"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        var linhas = csv.split("\r\n");
+        assertThat(linhas).hasSize(2);
+        assertThat(linhas[0]).isEqualTo("id,titulo,mensagem,data_criacao,status,autor,curso,total_respostas,data_ultima_atividade");
+        assertThat(linhas[1]).contains(",\"Vírgula, \"\"aspas\"\"\",...,");
+
+        mvc.perform(get("/topicos/exportacao").param("formato", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /topicos/busca - Deveria ranquear por relevância, ignorar acentos e tópicos excluídos")
+    @WithMockUser
+    void buscar_cenario1() throws Exception {
+        // Arrange
+        var relevante = topicoRepository.save(new Topico(new DadosCadastroTopico("Segurança com JWT", "Configuração de segurança no Spring", "Autor A", "Curso X")));
+        topicoRepository.save(new Topico(new DadosCadastroTopico("Dúvida de JPA", "Como melhorar a segurança das consultas?", "Autor B", "Curso X")));
+        var excluido = topicoRepository.save(new Topico(new DadosCadastroTopico("Seguranca antiga", "Tópico excluído", "Autor C", "Curso X")));
+        topicoRepository.save(new Topico(new DadosCadastroTopico("Outro assunto", "Nada a ver", "Autor D", "Curso X")));
+        excluido.excluir();
+        topicoRepository.save(excluido);
+
+        // Act & Assert
+        mvc.perform(get("/topicos/busca")
+                        .param("q", "seguranca")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(relevante.getId()));
+
+        mvc.perform(get("/topicos/busca").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /topicos/sugestoes - Deveria sugerir títulos pelo prefixo, os mais usados primeiro")
+    @WithMockUser
+    void sugerir_cenario1() throws Exception {
+        // Arrange
+        topicoRepository.save(new Topico(new DadosCadastroTopico("Spring Security", "Mensagem 1", "Autor A", "Curso X")));
+        topicoRepository.save(new Topico(new DadosCadastroTopico("Spring Boot", "Mensagem 2", "Autor B", "Curso X")));
+        topicoRepository.save(new Topico(new DadosCadastroTopico("Spring  boot", "Mensagem 3", "Autor C", "Curso X")));
+        topicoRepository.save(new Topico(new DadosCadastroTopico("Java Streams", "Mensagem 4", "Autor D", "Curso X")));
+
+        // Act & Assert
+        mvc.perform(get("/topicos/sugestoes").param("prefixo", "SPR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].titulo").value("Spring Boot"))
+                .andExpect(jsonPath("$[0].topicos").value(2))
+                .andExpect(jsonPath("$[1].titulo").value("Spring Security"));
+
+        mvc.perform(get("/topicos/sugestoes").param("prefixo", "spring s"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
     // Testes (put) -> /topicos/{id}
 
     @Test
@@ -167,6 +548,34 @@ class TopicoControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("PUT(/topicos/{id}) - Deve retornar http 412 se o If-Match não corresponde à versão atual")
+    @WithUserDetails(value = "teste", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void atualizar_cenario4_ifMatch() throws Exception {
+        var topico = topicoRepository.save(new Topico(new DadosCadastroTopico("Título versionado", "Mensagem", "teste", "Java")));
+        var etag = mvc.perform(get("/topicos/" + topico.getId()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        var primeira = new DadosAtualizacaoTopico("Primeira edição", null, null);
+        var novoEtag = mvc.perform(put("/topicos/" + topico.getId())
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(dadosAtualizacaoJson.write(primeira).getJson()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(novoEtag).isNotEqualTo(etag);
+
+        // Segunda edição feita a partir da versão antiga: seria um lost update
+        var segunda = new DadosAtualizacaoTopico("Edição concorrente", null, null);
+        mvc.perform(put("/topicos/" + topico.getId())
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(dadosAtualizacaoJson.write(segunda).getJson()))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(topicoRepository.findById(topico.getId()).get().getTitulo()).isEqualTo("Primeira edição");
+    }
+
     @Test
     @DisplayName("PUT(/topicos/{id}) - Deve retornar http 404 (Not found) se tentar atualizar ID não existente")
     @WithMockUser
@@ -209,6 +618,69 @@ class TopicoControllerTest {
         assertThat(topicoInativado.isAtivo()).isFalse();
     }
 
+    @Test
+    @DisplayName("GET /topicos/tendencias - Deveria ordenar pelo peso das respostas, no geral e por curso")
+    @WithMockUser
+    void tendencias_cenario1() throws Exception {
+        var autorResposta = usuarioRepository.findByLogin("teste").orElseThrow();
+        var emAlta = topicoRepository.save(new Topico(new DadosCadastroTopico("Em alta", "...", "Autor A", "Java")));
+        var calmo = topicoRepository.save(new Topico(new DadosCadastroTopico("Calmo", "...", "Autor B", "Java")));
+        var outroCurso = topicoRepository.save(new Topico(new DadosCadastroTopico("Outro curso", "...", "Autor C", "Spring Boot")));
+
+        for (var topico : List.of(emAlta, emAlta, outroCurso)) {
+            mvc.perform(post("/topicos/" + topico.getId() + "/respostas")
+                            .with(user(autorResposta))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"mensagem\":\"Resposta\"}"))
+                    .andExpect(status().isCreated());
+        }
+        tendenciasTopicos.atualizar();
+
+        mvc.perform(get("/topicos/tendencias"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].titulo").value("Em alta"))
+                .andExpect(jsonPath("$[1].titulo").value("Outro curso"))
+                .andExpect(jsonPath("$[2].titulo").value("Calmo"));
+
+        mvc.perform(get("/topicos/tendencias").param("curso", "Spring Boot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(outroCurso.getId()));
+
+        // Tópico excluído sai do ranking na próxima atualização
+        var excluido = topicoRepository.findById(emAlta.getId()).orElseThrow();
+        excluido.excluir();
+        topicoRepository.save(excluido);
+        tendenciasTopicos.atualizar();
+
+        mvc.perform(get("/topicos/tendencias").param("curso", "Java").param("limite", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].titulo").value("Calmo"));
+    }
+
+    @Test
+    @DisplayName("GET /topicos/tendencias - Visualizações gravadas devem entrar no ranking sem passar pelo cache do detalhe")
+    @WithMockUser
+    void tendencias_cenario2_visualizacoes() throws Exception {
+        var visto = topicoRepository.save(new Topico(new DadosCadastroTopico("Visto", "...", "Autor A", "Java")));
+        for (int i = 0; i < 3; i++) {
+            contadorVisualizacoes.registrar(visto.getId());
+        }
+        var buscasAntes = buscasCacheDetalhamento();
+
+        contadorVisualizacoes.gravar();
+        tendenciasTopicos.atualizar();
+
+        assertThat(buscasCacheDetalhamento()).isEqualTo(buscasAntes);
+        // Criação (peso 2) + 3 visualizações (peso 1), no balde atual
+        mvc.perform(get("/topicos/tendencias").param("curso", "Java"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].titulo").value("Visto"))
+                .andExpect(jsonPath("$[0].pontuacao").value(5.0));
+    }
+
     @Test
     @DisplayName("DELETE(/topicos/{id}) - Deve retornar http 404 (Not found) se tentar excluir ID inexistente")
     @WithMockUser
@@ -216,6 +688,12 @@ class TopicoControllerTest {
         mvc.perform(delete("/topicos/999")).andExpect(status().isNotFound());
     }
 
+    private double buscasCacheDetalhamento() {
+        return meterRegistry.get("cache.gets").tag("cache", "topicos").functionCounters().stream()
+                .mapToDouble(FunctionCounter::count)
+                .sum();
+    }
+
     private Topico criarTopicoPadraoNoBanco() {
         var dados = new DadosCadastroTopico("Dúvida sobre Testes", "Como criar testes?", "Teste1", "Software");
         var topico = new Topico(dados);
@@ -0,0 +1,205 @@
+package com.forumhub.forumhub.infra.evento;
+
+import com.forumhub.forumhub.dto.resposta.DadosListagemResposta;
+import com.forumhub.forumhub.infra.paginacao.Cursor;
+import com.forumhub.forumhub.infra.security.TokenService;
+import com.forumhub.forumhub.model.Resposta;
+import com.forumhub.forumhub.model.StatusTopico;
+import com.forumhub.forumhub.model.Topico;
+import com.forumhub.forumhub.model.Usuario;
+import com.forumhub.forumhub.repository.RespostaRepository;
+import com.forumhub.forumhub.repository.TopicoRepository;
+import com.forumhub.forumhub.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Fila de 4 eventos e no máximo 2 conexões, para os limites aparecerem com poucos eventos
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.respostas.stream.buffer=4",
+        "app.respostas.stream.max-assinantes=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HubRespostasTest {
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private HubRespostas hubRespostas;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private RespostaRepository respostaRepository;
+
+    private Usuario autor;
+    private Topico topico;
+
+    @BeforeEach
+    void setUp() {
+        respostaRepository.deleteAll();
+        topicoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        autor = usuarioRepository.save(new Usuario(null, "hub.teste", "123456"));
+        topico = topicoRepository.save(new Topico(null, "Tópico do hub", "Mensagem do tópico", true,
+                LocalDateTime.now(), StatusTopico.NAO_RESPONDIDO, null, autor.getUsername(), "Spring Boot"));
+    }
+
+    @Test
+    @DisplayName("Consumidor lento - Deve ser desconectado quando a fila dele enche")
+    void assinar_cenario1_consumidorLento() throws Exception {
+        var lentosAntes = lentos();
+        var assinantesAntes = hubRespostas.totalAssinantes();
+
+        try (var socket = new Socket()) {
+            // Cliente que nunca lê: quando os buffers TCP enchem, o send do emitter bloqueia e a fila cresce
+            socket.setReceiveBufferSize(1024);
+            socket.connect(new InetSocketAddress("localhost", porta));
+            var saida = socket.getOutputStream();
+            saida.write(("GET /topicos/" + topico.getId() + "/respostas/stream HTTP/1.1\r\n"
+                    + "Host: localhost\r\n"
+                    + "Authorization: Bearer " + tokenService.gerarToken(autor) + "\r\n"
+                    + "Accept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            saida.flush();
+            aguardar(() -> hubRespostas.totalAssinantes() == assinantesAntes + 1);
+
+            var mensagem = "x".repeat(4_000);
+            var inicio = LocalDateTime.now();
+            for (int i = 1; i <= 100_000 && lentos() == lentosAntes; i++) {
+                hubRespostas.aoAlterarResposta(new EventoResposta(EventoResposta.Tipo.CRIADA, topico.getId(),
+                        new DadosListagemResposta((long) i, mensagem, inicio.plusNanos(i * 1_000L), autor.getUsername(), false)));
+            }
+
+            // Quem publica não espera o cliente lento: a vaga é liberada assim que a fila enche
+            assertThat(lentos()).isEqualTo(lentosAntes + 1);
+            assertThat(hubRespostas.totalAssinantes()).isEqualTo(assinantesAntes);
+        }
+    }
+
+    @Test
+    @DisplayName("Reconexão - Histórico maior que a fila deve mandar o evento reiniciar em vez das respostas")
+    void assinar_cenario2_historicoMaiorQueFila() throws Exception {
+        var inicio = LocalDateTime.of(2024, 1, 1, 10, 0);
+        var primeira = respostaRepository.save(new Resposta(null, "Resposta 0", topico, inicio, autor, false));
+        for (int i = 1; i <= 5; i++) {
+            respostaRepository.save(new Resposta(null, "Resposta " + i, topico, inicio.plusMinutes(i), autor, false));
+        }
+
+        var resultado = mvc.perform(get("/topicos/" + topico.getId() + "/respostas/stream")
+                        .with(user(autor))
+                        .header("Last-Event-ID", new Cursor(primeira.getDataCriacao(), primeira.getId()).codificar()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        try {
+            assertThat(resultado.getResponse().getContentAsString())
+                    .contains("event:reiniciar")
+                    .doesNotContain("event:resposta", "Resposta 1");
+        } finally {
+            fechar(resultado);
+        }
+    }
+
+    @Test
+    @DisplayName("Ao vivo - Resposta com cursor anterior a uma já enviada (commits fora de ordem) também deve ser entregue")
+    void assinar_cenario3_commitsForaDeOrdem() throws Exception {
+        var resultado = mvc.perform(get("/topicos/" + topico.getId() + "/respostas/stream").with(user(autor)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        try {
+            var agora = LocalDateTime.now();
+            hubRespostas.aoAlterarResposta(new EventoResposta(EventoResposta.Tipo.CRIADA, topico.getId(),
+                    new DadosListagemResposta(2L, "Segunda a commitar", agora, autor.getUsername(), false)));
+            hubRespostas.aoAlterarResposta(new EventoResposta(EventoResposta.Tipo.CRIADA, topico.getId(),
+                    new DadosListagemResposta(1L, "Primeira a commitar", agora.minusSeconds(1), autor.getUsername(), false)));
+
+            var resposta = resultado.getResponse();
+            aguardar(() -> contem(resposta.getContentAsByteArray(), "Primeira a commitar"));
+            assertThat(resposta.getContentAsString()).contains("Segunda a commitar");
+        } finally {
+            fechar(resultado);
+        }
+    }
+
+    @Test
+    @DisplayName("Limite - Deve retornar http 429 com Retry-After quando o número de conexões chega ao máximo")
+    void assinar_cenario4_limiteAssinantes() throws Exception {
+        var abertos = new ArrayList<MvcResult>();
+        try {
+            for (int i = hubRespostas.totalAssinantes(); i < 2; i++) {
+                abertos.add(mvc.perform(get("/topicos/" + topico.getId() + "/respostas/stream").with(user(autor)))
+                        .andExpect(request().asyncStarted())
+                        .andReturn());
+            }
+
+            mvc.perform(get("/topicos/" + topico.getId() + "/respostas/stream").with(user(autor)))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+        } finally {
+            abertos.forEach(this::fechar);
+        }
+
+        assertThat(hubRespostas.totalAssinantes()).isZero();
+    }
+
+    // Encerra a requisição assíncrona como o container faria quando o cliente fecha a conexão
+    private void fechar(MvcResult resultado) {
+        resultado.getRequest().getAsyncContext().complete();
+    }
+
+    private static boolean contem(byte[] conteudo, String trecho) {
+        return new String(conteudo, StandardCharsets.UTF_8).contains(trecho);
+    }
+
+    private double lentos() {
+        return meterRegistry.counter("forumhub.respostas.stream.lentos").count();
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        var limite = System.currentTimeMillis() + 5_000;
+        while (!condicao.getAsBoolean() && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+        }
+        assertThat(condicao.getAsBoolean()).isTrue();
+    }
+}
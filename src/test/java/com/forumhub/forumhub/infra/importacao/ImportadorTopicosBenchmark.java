@@ -0,0 +1,91 @@
+package com.forumhub.forumhub.infra.importacao;
+
+import com.forumhub.forumhub.ForumhubApplication;
+import com.forumhub.forumhub.dto.importacao.DadosResultadoImportacao;
+import com.forumhub.forumhub.dto.topico.DadosCadastroTopico;
+import com.forumhub.forumhub.model.Topico;
+import com.forumhub.forumhub.repository.RespostaRepository;
+import com.forumhub.forumhub.repository.TopicoRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Tempo para gravar "quantidade" tópicos: um save por tópico, como no POST /topicos, contra a
+// importação em lotes. Precisa do MySQL do perfil "test":
+// java -cp <classpath de teste> ...ImportadorTopicosBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ImportadorTopicosBenchmark {
+
+    @Param({"1000", "10000"})
+    private int quantidade;
+
+    private ConfigurableApplicationContext contexto;
+    private TopicoRepository topicoRepository;
+    private RespostaRepository respostaRepository;
+    private ImportadorTopicos importador;
+    private byte[] ndjson;
+
+    @Setup
+    public void setup() {
+        var aplicacao = new SpringApplication(ForumhubApplication.class);
+        aplicacao.setAdditionalProfiles("test");
+        contexto = aplicacao.run("--spring.jpa.show-sql=false");
+        topicoRepository = contexto.getBean(TopicoRepository.class);
+        respostaRepository = contexto.getBean(RespostaRepository.class);
+        importador = contexto.getBean(ImportadorTopicos.class);
+
+        var linhas = new StringBuilder();
+        for (int i = 0; i < quantidade; i++) {
+            linhas.append("{\"titulo\":\"Tópico importado ").append(i)
+                    .append("\",\"mensagem\":\"Mensagem do tópico ").append(i)
+                    .append("\",\"autor\":\"autor").append(i)
+                    .append("\",\"curso\":\"Java\"}\n");
+        }
+        ndjson = linhas.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Cada medição parte da tabela vazia, senão a importação só encontraria duplicados
+    @Setup(Level.Invocation)
+    public void limpar() {
+        respostaRepository.deleteAllInBatch();
+        topicoRepository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int umPorUm() {
+        for (int i = 0; i < quantidade; i++) {
+            topicoRepository.save(new Topico(new DadosCadastroTopico("Tópico " + i,
+                    "Mensagem do tópico " + i, "autor" + i, "Java")));
+        }
+        return quantidade;
+    }
+
+    @Benchmark
+    public DadosResultadoImportacao emLotes() throws IOException {
+        return importador.importar(new ByteArrayInputStream(ndjson));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ImportadorTopicosBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
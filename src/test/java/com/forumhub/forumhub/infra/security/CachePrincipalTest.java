@@ -0,0 +1,107 @@
+package com.forumhub.forumhub.infra.security;
+
+import com.forumhub.forumhub.model.Usuario;
+import com.forumhub.forumhub.repository.RespostaRepository;
+import com.forumhub.forumhub.repository.TopicoRepository;
+import com.forumhub.forumhub.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CachePrincipalTest {
+
+    @Autowired
+    private CachePrincipal cachePrincipal;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private RespostaRepository respostaRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicInteger carregamentos = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        respostaRepository.deleteAll();
+        topicoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        carregamentos.set(0);
+    }
+
+    @Test
+    @DisplayName("Deveria carregar o usuário uma vez e servir as próximas buscas do cache")
+    void buscar_cenario1_acerto() {
+        usuarioRepository.save(new Usuario(null, "cache.acerto", "senha123"));
+        var acertosAntes = contagem("hit");
+        var faltasAntes = contagem("miss");
+
+        var primeira = cachePrincipal.buscar("cache.acerto", carregador());
+        var segunda = cachePrincipal.buscar("cache.acerto", carregador());
+
+        assertThat(primeira).isPresent();
+        assertThat(segunda.orElseThrow().getId()).isEqualTo(primeira.orElseThrow().getId());
+        assertThat(carregamentos).hasValue(1);
+        assertThat(contagem("miss") - faltasAntes).isEqualTo(1);
+        assertThat(contagem("hit") - acertosAntes).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deveria remover do cache o usuário alterado, inclusive pelo login antigo")
+    void remover_cenario1_loginAlterado() {
+        var usuario = usuarioRepository.save(new Usuario(null, "cache.antigo", "senha123"));
+        cachePrincipal.buscar("cache.antigo", carregador());
+
+        usuario.setLogin("cache.novo");
+        usuarioRepository.save(usuario);
+
+        assertThat(cachePrincipal.buscar("cache.antigo", carregador())).isEmpty();
+        assertThat(cachePrincipal.buscar("cache.novo", carregador())).isPresent();
+        assertThat(carregamentos).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Deveria remover do cache o usuário excluído")
+    void remover_cenario2_usuarioExcluido() {
+        var usuario = usuarioRepository.save(new Usuario(null, "cache.excluido", "senha123"));
+        cachePrincipal.buscar("cache.excluido", carregador());
+
+        usuarioRepository.delete(usuario);
+
+        assertThat(cachePrincipal.buscar("cache.excluido", carregador())).isEmpty();
+        assertThat(carregamentos).hasValue(2);
+    }
+
+    private Function<String, Optional<Usuario>> carregador() {
+        return login -> {
+            carregamentos.incrementAndGet();
+            return usuarioRepository.findByLogin(login);
+        };
+    }
+
+    private double contagem(String resultado) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "principal")
+                .tag("result", resultado)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,68 @@
+package com.forumhub.forumhub.infra.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.forumhub.forumhub.model.Usuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Executar pela IDE ou com: java -cp <classpath de teste> ...TokenServiceBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private static final String SECRET = "benchmark";
+
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "secret", SECRET);
+        ReflectionTestUtils.setField(tokenService, "validadeAcesso", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(tokenService, "tamanhoCacheVerificados", 10_000L);
+        ReflectionTestUtils.setField(tokenService, "meterRegistry", new SimpleMeterRegistry());
+        tokenService.inicializar();
+
+        token = tokenService.gerarToken(new Usuario(1L, "benchmark@forumhub.com", null));
+    }
+
+    // Comportamento anterior: algoritmo e verificador recriados a cada chamada
+    @Benchmark
+    public DecodedJWT verificacaoFria() {
+        return JWT.require(Algorithm.HMAC256(SECRET))
+                .withIssuer("API ForumHub")
+                .acceptExpiresAt(0)
+                .build()
+                .verify(token);
+    }
+
+    @Benchmark
+    public DecodedJWT verificacaoQuente() {
+        return tokenService.verificarAssinatura(token);
+    }
+
+    @Benchmark
+    public DecodedJWT acertoNoCache() {
+        return tokenService.verificar(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,65 @@
+package com.forumhub.forumhub.infra.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Executar pela IDE ou com: java -cp <classpath de teste> ...ArvorePrefixosBenchmark
+// O setup registra no log a estimativa de memória da árvore para a quantidade de títulos testada.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArvorePrefixosBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ArvorePrefixosBenchmark.class);
+
+    private static final String[] PALAVRAS = {
+            "spring", "security", "jwt", "java", "streams", "jpa", "hibernate", "consulta", "erro", "docker",
+            "api", "rest", "teste", "mockito", "flyway", "mysql", "token", "cache", "lombok", "maven"
+    };
+
+    @Param({"10000", "200000"})
+    private int quantidadeTitulos;
+
+    private ArvorePrefixos arvore;
+
+    @Setup
+    public void setup() {
+        arvore = new ArvorePrefixos(10);
+        var random = new SplittableRandom(42);
+        for (int i = 0; i < quantidadeTitulos; i++) {
+            var titulo = PALAVRAS[random.nextInt(PALAVRAS.length)] + " " + PALAVRAS[random.nextInt(PALAVRAS.length)]
+                    + " " + PALAVRAS[random.nextInt(PALAVRAS.length)] + " " + i;
+            arvore.alterar(titulo, titulo, 1 + random.nextInt(5));
+        }
+        var estatisticas = arvore.estatisticas();
+        log.info("{} títulos: {} nós, ~{} KiB", estatisticas.chaves(), estatisticas.nos(),
+                estatisticas.bytesEstimados() / 1024);
+    }
+
+    @Benchmark
+    public List<ArvorePrefixos.Sugestao> prefixoCurto() {
+        return arvore.buscar("sp", 10);
+    }
+
+    @Benchmark
+    public List<ArvorePrefixos.Sugestao> prefixoLongo() {
+        return arvore.buscar("spring security j", 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ArvorePrefixosBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,28 @@
+package com.forumhub.forumhub.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Guarda o SQL que o Hibernate gera na thread atual, para os testes rodarem EXPLAIN na consulta real
+public class CapturaSql implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURADOS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        CAPTURADOS.get().add(sql);
+        return sql;
+    }
+
+    static List<String> capturar(Runnable acao) {
+        CAPTURADOS.get().clear();
+        try {
+            acao.run();
+            return List.copyOf(CAPTURADOS.get());
+        } finally {
+            CAPTURADOS.remove();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.forumhub.forumhub.repository;
+
+import com.forumhub.forumhub.ForumhubApplication;
+import com.forumhub.forumhub.dto.topico.DadosListagemTopico;
+import com.forumhub.forumhub.model.StatusTopico;
+import com.forumhub.forumhub.model.Topico;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+// Compara a listagem por entidades (findAll + map) com a projeção direta no DTO.
+// Precisa do MySQL do perfil "test". O profiler de GC mostra a alocação por operação:
+// java -cp <classpath de teste> ...TopicoListagemBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopicoListagemBenchmark {
+
+    @Param({"20", "100"})
+    private int tamanhoPagina;
+
+    private ConfigurableApplicationContext contexto;
+    private TopicoRepository repository;
+    private Specification<Topico> spec;
+    private Pageable paginacao;
+
+    @Setup
+    public void setup() {
+        var aplicacao = new SpringApplication(ForumhubApplication.class);
+        aplicacao.setAdditionalProfiles("test");
+        contexto = aplicacao.run("--spring.jpa.show-sql=false");
+        repository = contexto.getBean(TopicoRepository.class);
+
+        repository.deleteAll();
+        var topicos = new ArrayList<Topico>();
+        for (int i = 0; i < 5_000; i++) {
+            topicos.add(new Topico(null, "Tópico " + i, "Mensagem do tópico " + i, true,
+                    LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i), StatusTopico.NAO_RESPONDIDO, null,
+                    "autor" + i, i % 2 == 0 ? "Java" : "Spring Boot"));
+        }
+        repository.saveAll(topicos);
+
+        spec = TopicoSpecifications.ativosFiltrados("Java", 2024);
+        paginacao = PageRequest.of(3, tamanhoPagina, Sort.by("dataCriacao"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        repository.deleteAll();
+        contexto.close();
+    }
+
+    @Benchmark
+    public Page<DadosListagemTopico> entidades() {
+        return repository.findAll(spec, paginacao).map(DadosListagemTopico::new);
+    }
+
+    @Benchmark
+    public Page<DadosListagemTopico> projecao() {
+        return repository.listarResumos(spec, paginacao);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TopicoListagemBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,203 @@
+package com.forumhub.forumhub.repository;
+
+import com.forumhub.forumhub.dto.exportacao.DadosLinhaExportacao;
+import com.forumhub.forumhub.dto.topico.DadosListagemTopico;
+import com.forumhub.forumhub.infra.paginacao.Cursor;
+import com.forumhub.forumhub.model.Resposta;
+import com.forumhub.forumhub.model.StatusTopico;
+import com.forumhub.forumhub.model.Topico;
+import com.forumhub.forumhub.model.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Literais embutidos no SQL capturado: só o LIMIT continua como parâmetro no EXPLAIN.
+// Bloco de exportação pequeno para a exportação com respostas passar por vários blocos.
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.forumhub.forumhub.repository.CapturaSql",
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+        "app.exportacao.bloco=50"
+})
+@ActiveProfiles("test")
+class TopicoRepositoryTest {
+
+    private static final String[] CURSOS = {"Java", "Spring Boot", "SQL", "Front-end", "DevOps"};
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private RespostaRepository respostaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private List<Topico> topicos;
+
+    @BeforeEach
+    void setUp() {
+        respostaRepository.deleteAll();
+        topicoRepository.deleteAll();
+
+        var topicos = new ArrayList<Topico>();
+        for (int i = 0; i < 1000; i++) {
+            var data = LocalDateTime.of(2020 + i % 6, 1 + i % 12, 1 + i % 28, 10, 0);
+            topicos.add(new Topico(null, "Tópico " + i, "Mensagem " + i, i % 10 != 0, data,
+                    StatusTopico.NAO_RESPONDIDO, null, "autor" + i, CURSOS[i % CURSOS.length]));
+        }
+        this.topicos = topicoRepository.saveAll(topicos);
+        jdbcTemplate.execute("ANALYZE TABLE topicos");
+    }
+
+    // O EXPLAIN roda sobre o SQL que o Hibernate gerou para a listagem (GET /topicos), não sobre uma cópia
+    @Test
+    @DisplayName("EXPLAIN - Listagem filtrada por curso e ano deve usar índice")
+    void listagemPorCursoEAno_usaIndice() {
+        assertUsaIndice(explainListagem(TopicoSpecifications.ativosFiltrados("Java", 2023)));
+    }
+
+    @Test
+    @DisplayName("EXPLAIN - Listagem filtrada só por curso deve usar índice")
+    void listagemPorCurso_usaIndice() {
+        assertUsaIndice(explainListagem(TopicoSpecifications.ativosFiltrados("Java", null)));
+    }
+
+    @Test
+    @DisplayName("EXPLAIN - Listagem filtrada só por ano deve usar índice")
+    void listagemPorAno_usaIndice() {
+        assertUsaIndice(explainListagem(TopicoSpecifications.ativosFiltrados(null, 2023)));
+    }
+
+    @Test
+    @DisplayName("EXPLAIN - Listagem sem filtros deve usar índice")
+    void listagemSemFiltros_usaIndice() {
+        assertUsaIndice(explainListagem(TopicoSpecifications.ativosFiltrados(null, null)));
+    }
+
+    @Test
+    @DisplayName("EXPLAIN - Página por cursor deve usar índice")
+    void listagemPorCursor_usaIndice() {
+        var cursor = new Cursor(LocalDateTime.of(2023, 6, 1, 10, 0), 500L);
+        var spec = TopicoSpecifications.ativosFiltrados("Java", null).and(TopicoSpecifications.aposCursor(cursor));
+
+        var sql = consultaGerada(() -> topicoRepository.listarResumosPorCursor(spec, 11));
+
+        assertUsaIndice(explain(sql, 11));
+    }
+
+    @Test
+    @DisplayName("EXPLAIN - Exportação com respostas deve ler tópicos e respostas pelos índices, sem filesort")
+    void exportacaoComRespostas_usaIndice() {
+        var autor = usuarioRepository.findByLogin("exportacao")
+                .orElseGet(() -> usuarioRepository.save(new Usuario(null, "exportacao", "123")));
+        var respostas = new ArrayList<Resposta>();
+        var linhasEsperadas = 0;
+        for (int i = 0; i < topicos.size(); i++) {
+            var topico = topicos.get(i);
+            for (int j = 0; j < i % 3; j++) {
+                respostas.add(new Resposta(null, "Resposta " + j, topico, topico.getDataCriacao().plusMinutes(2 - j), autor, false));
+            }
+            if (topico.isAtivo()) {
+                linhasEsperadas += Math.max(1, i % 3);
+            }
+        }
+        respostaRepository.saveAll(respostas);
+        jdbcTemplate.execute("ANALYZE TABLE respostas");
+
+        var linhas = new ArrayList<DadosLinhaExportacao>();
+        var sqls = CapturaSql.capturar(() -> transactionTemplate.executeWithoutResult(status -> {
+            try (var stream = topicoRepository.streamExportacao(TopicoSpecifications.ativosFiltrados(null, null), true)) {
+                stream.forEach(linhas::add);
+            }
+        }));
+
+        // Tópicos em ordem de id e, dentro de cada um, respostas por data
+        assertThat(linhas).hasSize(linhasEsperadas)
+                .isSortedAccordingTo(Comparator.comparing(DadosLinhaExportacao::id)
+                        .thenComparing(DadosLinhaExportacao::dataCriacaoResposta, Comparator.nullsFirst(Comparator.naturalOrder())));
+        var consultaTopicos = sqls.stream().filter(sql -> sql.contains("from topicos")).findFirst().orElseThrow();
+        var consultaRespostas = sqls.stream().filter(sql -> sql.contains("from respostas")).findFirst().orElseThrow();
+        assertUsaIndice(explain(consultaTopicos, 50));
+        assertUsaIndice(explain(consultaRespostas));
+    }
+
+    @Test
+    @DisplayName("Unicidade - O banco deve recusar um segundo tópico com o mesmo conteúdo normalizado")
+    void hashConteudo_unico() {
+        topicoRepository.saveAndFlush(new Topico(null, "Como usar Streams", "Dúvida sobre o map", true,
+                LocalDateTime.now(), StatusTopico.NAO_RESPONDIDO, null, "autor", "Java"));
+
+        assertThatThrownBy(() -> topicoRepository.saveAndFlush(new Topico(null, "como USAR  streams", " dúvida sobre o MAP", true,
+                LocalDateTime.now(), StatusTopico.NAO_RESPONDIDO, null, "outro", "Java")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("Projeção - listarResumos deve devolver a mesma página que a listagem por entidades")
+    void listarResumos_igualListagemPorEntidades() {
+        var spec = TopicoSpecifications.ativosFiltrados("Java", 2023);
+        var paginacao = PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "dataCriacao").and(Sort.by("id")));
+
+        var porEntidades = topicoRepository.findAll(spec, paginacao).map(DadosListagemTopico::new);
+        var projecao = topicoRepository.listarResumos(spec, paginacao);
+
+        assertThat(projecao.getContent()).isNotEmpty().isEqualTo(porEntidades.getContent());
+        assertThat(projecao.getTotalElements()).isEqualTo(porEntidades.getTotalElements());
+    }
+
+    // Segunda página na ordenação padrão do controller; o LIMIT do MySQL recebe (offset, tamanho)
+    private List<Map<String, Object>> explainListagem(Specification<Topico> spec) {
+        var paginacao = PageRequest.of(1, 10, Sort.by("dataCriacao"));
+        var sql = consultaGerada(() -> topicoRepository.listarResumos(spec, paginacao));
+        return explain(sql, paginacao.getOffset(), paginacao.getPageSize());
+    }
+
+    private String consultaGerada(Runnable consulta) {
+        var sqls = CapturaSql.capturar(consulta);
+        return sqls.stream()
+                .filter(sql -> sql.contains("order by"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Consulta da listagem não capturada: " + sqls));
+    }
+
+    private List<Map<String, Object>> explain(String sql, Object... limite) {
+        var parametros = sql.chars().filter(c -> c == '?').count();
+        assertThat(parametros).as("parâmetros restantes em %s", sql).isLessThanOrEqualTo(limite.length);
+        var valores = List.of(limite).subList((int) (limite.length - parametros), limite.length);
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, valores.toArray());
+    }
+
+    // Nem varredura da tabela (ALL) nem do índice inteiro (index), e a ordem tem que sair do índice
+    private void assertUsaIndice(List<Map<String, Object>> plano) {
+        assertThat(plano).isNotEmpty();
+        for (var linha : plano) {
+            assertThat(linha.get("type")).as("tipo de acesso em %s", linha).isNotIn("ALL", "index");
+            assertThat(linha.get("key")).as("índice escolhido em %s", linha).isNotNull();
+            assertThat(String.valueOf(linha.get("Extra"))).as("ordenação em %s", linha).doesNotContain("Using filesort");
+        }
+    }
+}